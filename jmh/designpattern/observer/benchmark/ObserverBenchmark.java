@@ -0,0 +1,91 @@
+package designpattern.observer.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import designpattern.observer.benchmark.Benchmark.IBenchmarkImplementation;
+
+/**
+ * Suite JMH qui remplace la boucle de Benchmark.main().
+ *
+ * Chaque implmentation de IBenchmarkImplementation est mesure en dbit, en temps
+ * moyen et en percentiles (SampleTime), aprs warmup et dans une JVM spare, ce qui
+ * limine la compilation JIT et le chargement des classes des rsultats.
+ *
+ * Ce dossier n'est pas dans le classpath Eclipse : il faut compiler les sources de
+ * src/ et de jmh/ avec jmh-core et jmh-generator-annprocess, puis lancer :
+ *
+ * java -cp ... org.openjdk.jmh.Main ObserverBenchmark
+ *
+ * @see http://openjdk.java.net/projects/code-tools/jmh/
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ObserverBenchmark {
+
+	/**
+	 * L'implmentation  tester.
+	 */
+	@Param({ "ImplBasic", "ImplDispatcher", "ImplEmitter", "ImplEmitter2", "ImplEmitterPrimitive" })
+	public String implementation;
+
+	/**
+	 * Le nombre de listeners inscrits. Chaque appel  initListeners() en ajoute 4,
+	 * la valeur doit donc tre un multiple de 4.
+	 */
+	@Param({ "4", "16", "64" })
+	public int listeners;
+
+	private IBenchmarkImplementation _impl;
+
+	/**
+	 * La chane transporte par l'event, la mme que dans Benchmark.main().
+	 * Aucun listener ne la lit, sa taille n'est donc pas un paramtre.
+	 */
+	private static final String VARCHAR = "48f5d6s1v65s156FS165FSf1c561q6f1c8sd41v6dsf4v98E4SC86D1C861SDC<894SDQC891DQV9F1SD61VDF";
+
+	private double _number;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+
+		// On fabrique l'implmentation par son nom
+		_impl = (IBenchmarkImplementation) Class.forName(getClass().getPackage().getName() + "." + implementation).getDeclaredConstructor().newInstance();
+
+		// On inscrit les listeners par paquets de 4
+		for (int i = listeners / 4; i > 0; --i) {
+			_impl.initListeners();
+		}
+
+		// On prpare les arguments hors de la mesure
+		_number = Math.random();
+
+	}
+
+	@Benchmark
+	public void notifyListeners(Blackhole bh) {
+		_impl.notifyListeners(_number, VARCHAR);
+		// Les listeners incrmentent Benchmark.COUNTER, on le consomme pour que le JIT
+		// ne puisse pas supprimer le travail. Le nom complet est ncessaire : l'import de
+		// l'annotation @Benchmark masque la classe Benchmark du package
+		bh.consume(designpattern.observer.benchmark.Benchmark.COUNTER);
+	}
+
+}
@@ -4,6 +4,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * Mesure rapide, sans warmup ni fork : les dures affiches incluent la compilation
+ * JIT et le chargement des classes. Pour des chiffres fiables, utiliser la suite JMH
+ * ObserverBenchmark (dossier jmh/).
  * 
  * @see http://stackoverflow.com/questions/504103/how-do-i-write-a-correct-micro-benchmark-in-java
  */
@@ -16,6 +19,7 @@ public class Benchmark {
 		tester.add(new ImplDispatcher());
 		tester.add(new ImplEmitter());
 		tester.add(new ImplEmitter2());
+		tester.add(new ImplEmitterPrimitive());
 		
 //		Parallel.For(
 //				tester, // La liste des implmentations  tester
@@ -42,8 +46,13 @@ public class Benchmark {
 		public void notifyListeners(double number, String varchar);
 	}
 	
+	/**
+	 * Compteur incrment par les listeners, consomm par la suite JMH.
+	 */
+	public static long COUNTER = 0;
+	
 	public static void count(IBenchmarkImplementation impl) {
-		
+		COUNTER++;
 	}
 
 }
@@ -0,0 +1,64 @@
+package designpattern.observer.benchmark;
+
+import designpattern.observer.benchmark.Benchmark.IBenchmarkImplementation;
+import designpattern.observer.emitter.BindEvent;
+import designpattern.observer.emitter.DoubleEventEmitter;
+import designpattern.observer.emitter.EventEmitter;
+import designpattern.observer.emitter.Events;
+import designpattern.observer.emitter.IEventEmitter;
+import designpattern.observer.emitter.IDoubleListener;
+
+public class ImplEmitterPrimitive implements IBenchmarkImplementation {
+
+	public final DoubleEventEmitter OnNumberChanged = new DoubleEventEmitter();
+	public final IEventEmitter<String> OnVarcharChanged = new EventEmitter<String>();
+	
+	@Override
+	public void initListeners() {
+		// # 1
+		OnNumberChanged.add(new IDoubleListener() {
+			@Override
+			public void notify(double event) {
+				Benchmark.count(ImplEmitterPrimitive.this);
+			}
+		});
+		// # 2
+		IDoubleListener o = new IDoubleListener() {
+			@Override
+			public void notify(double event) {
+				Benchmark.count(ImplEmitterPrimitive.this);
+			}
+		};
+		OnNumberChanged.add(o::notify);
+		// # 3
+		Events.bind(this, new ExpliciteObserver());
+		// # 4
+		Events.bind(this, new ImpliciteObserver());
+	}
+
+	@Override
+	public void notifyListeners(double number, String varchar) {
+		OnNumberChanged.notify(number);
+		OnVarcharChanged.notify(varchar);
+	}
+	
+	public class ExpliciteObserver {
+		@BindEvent
+		public void OnVarcharChanged(String e) {
+			Benchmark.count(ImplEmitterPrimitive.this);
+		}
+	}
+	
+	public class ImpliciteObserver {
+		@BindEvent({"OnVarcharChanged"})
+		public void myMethod(String e) {
+			Benchmark.count(ImplEmitterPrimitive.this);
+		}
+	}
+
+	@Override
+	public int getObserversCount() {
+		return OnVarcharChanged.getListenersCount() + OnNumberChanged.getListenersCount();
+	}
+
+}
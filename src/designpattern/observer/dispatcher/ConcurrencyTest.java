@@ -0,0 +1,150 @@
+package designpattern.observer.dispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Vrifie que des bind() et unbind() concurrents, faits pendant que d'autres
+ * threads propagent, ne perdent aucun listener et ne cassent pas l'ordre des
+ * priorits.
+ *
+ * Lve une AssertionError en cas d'chec.
+ */
+public class ConcurrencyTest {
+
+	private static final int TRIGGER_THREADS = 4;
+
+	private static final int BIND_THREADS = 4;
+
+	private static final int ROUNDS = 20000;
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+
+		final EventDispatcher<String> dispatcher = new EventDispatcher<String>();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		// Deux listeners stables, aux deux extrmits de la chane : le premier
+		// doit toujours passer avant le second, et chacun une seule fois
+		final AtomicLong high = new AtomicLong();
+		final AtomicLong low = new AtomicLong();
+		final ThreadLocal<Boolean> highSeen = new ThreadLocal<Boolean>();
+		dispatcher.bind("tick", new IListener<String>() {
+			public boolean notifyEvent(String event, Object... args) {
+				high.incrementAndGet();
+				highSeen.set(Boolean.TRUE);
+				return true;
+			}
+		}, IObservable.MAX_PRIORITY);
+		dispatcher.bind("tick", new IListener<String>() {
+			public boolean notifyEvent(String event, Object... args) {
+				low.incrementAndGet();
+				if (highSeen.get() != Boolean.TRUE) {
+					failure.compareAndSet(null, new AssertionError("priority order broken"));
+				}
+				highSeen.remove();
+				return true;
+			}
+		}, IObservable.MIN_PRIORITY);
+
+		// Les threads qui propagent en continu
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final AtomicLong triggers = new AtomicLong();
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < TRIGGER_THREADS; i++) {
+			threads.add(new Thread() {
+				public void run() {
+					try {
+						start.await();
+						while (running.get()) {
+							dispatcher.trigger("tick");
+							triggers.incrementAndGet();
+						}
+					}
+					catch (Throwable ex) {
+						failure.compareAndSet(null, ex);
+					}
+				}
+			});
+		}
+
+		// Les threads qui inscrivent et retirent leurs listeners : un listener
+		// inscrit doit tre vu par le trigger() suivant du mme thread, et ne
+		// plus l'tre une fois retir
+		List<Thread> binders = new ArrayList<Thread>();
+		for (int i = 0; i < BIND_THREADS; i++) {
+			final int priority = IObservable.LOW_PRIORITY + i;
+			binders.add(new Thread() {
+				public void run() {
+					try {
+						start.await();
+						// Seuls les appels venant de ce thread sont compts : ceux des
+						// threads de propagation peuvent arriver aprs le unbind(),
+						// s'ils ont commenc avant
+						final Thread owner = Thread.currentThread();
+						final AtomicLong calls = new AtomicLong();
+						IListener<String> listener = new IListener<String>() {
+							public boolean notifyEvent(String event, Object... args) {
+								if (Thread.currentThread() == owner) {
+									calls.incrementAndGet();
+								}
+								return true;
+							}
+						};
+						for (int round = 0; round < ROUNDS; round++) {
+							String event = (round & 1) == 0 ? "tick" : "tock";
+							dispatcher.bind(event, listener, priority);
+							long before = calls.get();
+							dispatcher.trigger(event, listener, new Object[0]);
+							check(calls.get() > before, "bind lost on " + event);
+							check(dispatcher.unbind(event, listener), "unbind lost on " + event);
+							before = calls.get();
+							dispatcher.trigger(event, listener, new Object[0]);
+							check(calls.get() == before, "unbound listener notified on " + event);
+						}
+					}
+					catch (Throwable ex) {
+						failure.compareAndSet(null, ex);
+					}
+				}
+			});
+		}
+
+		for (Thread thread : threads) thread.start();
+		for (Thread thread : binders) thread.start();
+		start.countDown();
+		for (Thread thread : binders) thread.join(TimeUnit.MINUTES.toMillis(1));
+		running.set(false);
+		for (Thread thread : threads) thread.join(TimeUnit.MINUTES.toMillis(1));
+
+		if (failure.get() != null) {
+			throw new AssertionError("concurrent failure", failure.get());
+		}
+
+		// Chaque propagation a notifi les deux listeners stables, une fois
+		check(high.get() == triggers.get(), "high listener notified " + high.get() + " times for " + triggers.get() + " triggers");
+		check(low.get() == triggers.get(), "low listener notified " + low.get() + " times for " + triggers.get() + " triggers");
+
+		// Il ne reste que les deux listeners stables
+		long h = high.get();
+		dispatcher.trigger("tick");
+		check(high.get() == h + 1, "stable listener lost");
+		check(dispatcher._eventsListeners.get("tick").triggerables.length == 2, "churn listener left on tick");
+		check(dispatcher._eventsListeners.get("tock") == null, "churn listener left on tock");
+
+		System.out.println("OK : " + triggers.get() + " triggers, " + BIND_THREADS * ROUNDS + " bind/unbind");
+
+	}
+
+}
@@ -1,13 +1,27 @@
 package designpattern.observer.dispatcher;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import designpattern.observer.metrics.Metrics;
+import designpattern.observer.source.ICallback;
+import designpattern.observer.trace.Trace;
+
 /**
  * Implmentation de la l'interface IObservable.
  * 
@@ -20,9 +34,17 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 	/**
 	 * La liste des listeners.
 	 * 
-	 * Map<String event, Map<Integer priority, Triggerable listenerCallback>>
+	 * Map<String event, ListenerChain listenersCallbacks>
+	 * 
+	 * Les chanes sont immuables et dj tries par priorit dcroissante :
+	 * bind() et unbind() fabriquent une nouvelle chane et la remplacent dans
+	 * la map, trigger() n'a plus qu' parcourir le tableau.
+	 * 
+	 * Le remplacement se fait par compare-and-set sur la map concurrente, il n'y
+	 * a donc aucun verrou global : deux events diffrents ne se gnent jamais, et
+	 * un unbind() n'affecte pas une propagation dj en cours.
 	 */
-	protected Map<Object, SortedMap<Integer, Triggerable<E>>> _eventsListeners = new HashMap<Object, SortedMap<Integer, Triggerable<E>>>();
+	protected ConcurrentMap<Object, ListenerChain<E>> _eventsListeners = new ConcurrentHashMap<Object, ListenerChain<E>>();
 	
 	/**
 	 * L'objet observable qui est associ  ce dispatcher (pour les logs)
@@ -41,6 +63,63 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 	 */
 	public boolean _exceptionRaiseStopPropagation = false;
 	
+	/**
+	 * La porte d'un arrt de propagation dans un triggerBatch().
+	 */
+	public static enum BatchMode {
+		/**
+		 * Un listener qui renvoie FALSE pour un lment arrte la propagation
+		 * de cet lment seulement : les autres lments du lot continuent
+		 * vers les listeners de priorit infrieure.
+		 */
+		PER_ELEMENT,
+		/**
+		 * Un listener qui renvoie FALSE pour un lment arrte la propagation
+		 * de tout le lot.
+		 */
+		PER_BATCH
+	}
+	
+	/**
+	 * Le mode utilis par triggerBatch(E, List).
+	 */
+	protected BatchMode _batchMode = BatchMode.PER_ELEMENT;
+	
+	/**
+	 * Le pool sur lequel les listeners d'une mme tranche de priorit sont
+	 * notifis en parallle, ou NULL (par dfaut) pour une propagation
+	 * squentielle.
+	 */
+	protected volatile ForkJoinPool _parallelPool = null;
+	
+	/**
+	 * La largeur des tranches de priorit en mode parallle.
+	 */
+	protected volatile int _bandWidth = 50;
+	
+	/**
+	 * Les mtriques de propagation, ou NULL (par dfaut) pour ne rien mesurer.
+	 */
+	protected volatile Metrics _metrics = null;
+	
+	/**
+	 * Le watchdog des listeners trop lents, ou NULL (par dfaut).
+	 */
+	protected volatile ListenerWatchdog _watchdog = null;
+	
+	/**
+	 * Les rfrences des listeners connects par bindWeak() que le GC a
+	 * librs, en attente de retrait. NULL tant que bindWeak() n'a pas servi.
+	 */
+	private volatile ReferenceQueue<Object> _cleared = null;
+	
+	/**
+	 * L'excuteur utilis par triggerAsynch(). Par dfaut, chaque event est
+	 * propag dans un thread virtuel (si la JVM le permet), en gardant l'ordre
+	 * des events de ce dispatcher.
+	 */
+	protected Executor _executor = null;
+	
 	/**
 	 * Constructeur simple
 	 */
@@ -65,81 +144,206 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 	
 	@Override
 	public void bind(E event, IListener<E> listener) {
-		bind(event, listener, IObservable.DEFAULT_PRIORITY);
+		subscribe(event, listener, IObservable.DEFAULT_PRIORITY);
 	}
 
 	@Override
 	public void bind(E event, IListener<E> listener, Integer priority) {
+		subscribe(event, listener, priority);
+	}
+	
+	@Override
+	public ISubscription subscribe(E event, IListener<E> listener) {
+		return subscribe(event, listener, IObservable.DEFAULT_PRIORITY);
+	}
+
+	@Override
+	public ISubscription subscribe(E event, IListener<E> listener, Integer priority) {
 		// Check arguments
 		if (event == null || listener == null || priority == null) {
 			throw new NullPointerException();
 		}
-		// Synchronized
-		synchronized (_eventsListeners) {
-			// Pointer to the map 
-			SortedMap<Integer, Triggerable<E>> map;
-			// Create the map
-			if (!_eventsListeners.containsKey(event)) {
-				map = new TreeMap<Integer, Triggerable<E>>();
-				_eventsListeners.put(event, map);
-			}
-			// Restore the map
-			else {
-				map = _eventsListeners.get(event);
-			}
-			// Set right priority
-			while (map.containsKey(priority)) {
-				priority++;
-			}
-			// Add observer
-			map.put(priority, new InterfaceTriggerable<E>(listener));
-			// Debug
-			if (LOGGER.isLoggable(Level.FINEST)) {
-				LOGGER.log(Level.FINEST, "BIND " + this.toString()
-						+ ".bind('" + event + "', '" + listener + "', "
-						+ priority + ")");
-			}
+		// Add observer
+		Triggerable<E> triggerable = new InterfaceTriggerable<E>(listener);
+		priority = add(event, triggerable, priority);
+		// Debug
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.BIND, this, event, listener, null, priority);
+		}
+		return new Subscription(event, triggerable, priority);
+	}
+	
+	/**
+	 * Connecter un listener sans le retenir, avec une priorit par dfaut.
+	 * 
+	 * @see #bindWeak(Object, IListener, Integer)
+	 */
+	public void bindWeak(E event, IListener<E> listener) {
+		subscribeWeak(event, listener, IObservable.DEFAULT_PRIORITY);
+	}
+	
+	/**
+	 * Connecter un listener sans le retenir : le dispatcher ne garde qu'une
+	 * rfrence faible, le listener peut donc tre libr par le GC sans
+	 * avoir t dconnect. Il est alors retir de la chane lors d'un
+	 * trigger() ou d'un bind() suivant.
+	 * 
+	 * Le listener doit donc tre retenu ailleurs, par la vue qui l'a cr
+	 * par exemple.
+	 */
+	public void bindWeak(E event, IListener<E> listener, Integer priority) {
+		subscribeWeak(event, listener, priority);
+	}
+	
+	/**
+	 * Comme bindWeak(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribeWeak(E event, IListener<E> listener) {
+		return subscribeWeak(event, listener, IObservable.DEFAULT_PRIORITY);
+	}
+	
+	/**
+	 * Comme bindWeak(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribeWeak(E event, IListener<E> listener, Integer priority) {
+		// Check arguments
+		if (event == null || listener == null || priority == null) {
+			throw new NullPointerException();
+		}
+		// Add observer
+		Triggerable<E> triggerable = new WeakTriggerable<E>(event, listener, cleared());
+		priority = add(event, triggerable, priority);
+		// Debug
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.BIND, this, event, listener, null, priority);
+		}
+		return new Subscription(event, triggerable, priority);
+	}
+	
+	/**
+	 * Renvoie la file des rfrences libres, en la crant au besoin.
+	 */
+	private synchronized ReferenceQueue<Object> cleared() {
+		if (_cleared == null) {
+			_cleared = new ReferenceQueue<Object>();
+		}
+		return _cleared;
+	}
+	
+	/**
+	 * Retire des chanes les listeners faibles que le GC a librs. Tant
+	 * qu'aucun n'a t libr, ne cote qu'une lecture de la file, sans
+	 * verrou ni allocation.
+	 */
+	protected void prune() {
+		ReferenceQueue<Object> cleared = _cleared;
+		if (cleared == null) {
+			return;
+		}
+		Reference<?> reference;
+		while ((reference = cleared.poll()) != null) {
+			WeakTriggerable<?> triggerable = (WeakTriggerable<?>) reference;
+			remove(triggerable.event, triggerable);
 		}
 	}
 	
 	public void bind(E event, Object listener, String methodName) {
-		bind(event, listener, methodName, IObservable.DEFAULT_PRIORITY);
+		subscribe(event, listener, methodName, IObservable.DEFAULT_PRIORITY);
 	}
 	
 	@Override
 	public void bind(E event, Object listener, String methodName, Integer priority) {
+		subscribe(event, listener, methodName, priority);
+	}
+	
+	@Override
+	public ISubscription subscribe(E event, Object listener, String methodName) {
+		return subscribe(event, listener, methodName, IObservable.DEFAULT_PRIORITY);
+	}
+	
+	@Override
+	public ISubscription subscribe(E event, Object listener, String methodName, Integer priority) {
 		// Check arguments
 		if (event == null || listener == null || methodName == null || priority == null) {
 			throw new NullPointerException();
 		}
-		// Synchronized
-		synchronized (_eventsListeners) {
-			// Pointer to the map 
-			SortedMap<Integer, Triggerable<E>> map;
-			// Create the map
-			if (!_eventsListeners.containsKey(event)) {
-				map = new TreeMap<Integer, Triggerable<E>>();
-				_eventsListeners.put(event, map);
-			}
-			// Restore the map
-			else {
-				map = _eventsListeners.get(event);
-			}
+		// Add observer
+		Triggerable<E> triggerable = new MethodTriggerable<E>(listener, methodName);
+		priority = add(event, triggerable, priority);
+		// Debug
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.BIND, this, event, listener, null, priority);
+		}
+		return new Subscription(event, triggerable, priority);
+	}
+	
+	/**
+	 * Connecter un listener typ sur un event en particulier, avec une priorit
+	 * par dfaut. Voir ITypedListener.
+	 */
+	public void bind(E event, ITypedListener<E> listener) {
+		subscribe(event, listener, IObservable.DEFAULT_PRIORITY);
+	}
+	
+	/**
+	 * Connecter un listener typ sur un event en particulier, avec une priorit.
+	 * Avec les trigger()  nombre d'arguments fixe, aucun tableau n'est allou.
+	 */
+	public void bind(E event, ITypedListener<E> listener, Integer priority) {
+		subscribe(event, listener, priority);
+	}
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribe(E event, ITypedListener<E> listener) {
+		return subscribe(event, listener, IObservable.DEFAULT_PRIORITY);
+	}
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribe(E event, ITypedListener<E> listener, Integer priority) {
+		// Check arguments
+		if (event == null || listener == null || priority == null) {
+			throw new NullPointerException();
+		}
+		// Add observer
+		Triggerable<E> triggerable = new TypedTriggerable<E>(listener);
+		priority = add(event, triggerable, priority);
+		// Debug
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.BIND, this, event, listener, null, priority);
+		}
+		return new Subscription(event, triggerable, priority);
+	}
+	
+	/**
+	 * Ajoute une callback dans la chane de l'event, en remplaant la chane
+	 * par une copie. Le cot est support ici plutt qu'au trigger().
+	 * 
+	 * @return La priorit rellement attribue (dcale si dj prise)
+	 */
+	protected int add(E event, Triggerable<E> triggerable, int priority) {
+		// Listeners librs
+		prune();
+		// On recommence tant qu'un autre thread a modifi la chane entre temps
+		while (true) {
+			// Pointer to the chain
+			ListenerChain<E> chain = _eventsListeners.get(event);
 			// Set right priority
-			while (map.containsKey(priority)) {
-				priority++;
+			int p = chain != null ? chain.freePriority(priority) : priority;
+			// Create the chain
+			if (chain == null) {
+				if (_eventsListeners.putIfAbsent(event, ListenerChain.<E>empty().with(p, triggerable)) == null) {
+					return p;
+				}
 			}
-			// Add observer
-			map.put(priority, new MethodTriggerable<E>(listener, methodName));
-			// Debug
-			if (LOGGER.isLoggable(Level.FINER)) {
-				LOGGER.log(Level.FINER, "BIND "
-						+ (_sender == null ? "?" : _sender.getClass().getSimpleName())
-						+ ".bind('" + event + "', '" + listener.getClass().getSimpleName() + "', "
-						+ priority + ")");
+			// Replace the chain
+			else if (_eventsListeners.replace(event, chain, chain.with(p, triggerable))) {
+				return p;
 			}
 		}
-		
 	}
 	
 	@Override
@@ -157,196 +361,1022 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 		return trigger(event, this, listenerFilter, args);
 	}
 	
+	@Override
+	public boolean triggerBatch(E event, List<Object[]> argsBatch) {
+		return triggerBatch(event, argsBatch, _batchMode);
+	}
+	
+	/**
+	 * Notifier tous les listeners d'un lot d'events, en prcisant la porte
+	 * des arrts de propagation.
+	 * 
+	 * La chane est parcourue une seule fois : chaque listener reoit tous
+	 * les lments du lot, dans l'ordre, avant le listener suivant. Les
+	 * IBatchListener reoivent le lot en un seul appel.
+	 * 
+	 * @return FALSE si au moins un lment a t arrt.
+	 */
+	public boolean triggerBatch(E event, List<Object[]> argsBatch, BatchMode mode) {
+		return dispatchBatch(event, argsBatch, mode);
+	}
+	
+	/**
+	 * Notifier tous les listeners d'un event sans argument.
+	 */
+	public boolean triggerNoArgs(E event) {
+		return triggerTyped(event, TypedDispatch.ARGS0, null, null, null, null, 0, 0);
+	}
+	
+	/**
+	 * Notifier tous les listeners, avec un int. Seuls les listeners non typs
+	 * provoquent le boxing de la valeur.
+	 */
+	public boolean triggerInt(E event, int value) {
+		return triggerTyped(event, TypedDispatch.INT, null, null, null, null, value, 0);
+	}
+	
+	/**
+	 * Notifier tous les listeners, avec un long.
+	 */
+	public boolean triggerLong(E event, long value) {
+		return triggerTyped(event, TypedDispatch.LONG, null, null, null, null, value, 0);
+	}
+	
+	/**
+	 * Notifier tous les listeners, avec un double.
+	 */
+	public boolean triggerDouble(E event, double value) {
+		return triggerTyped(event, TypedDispatch.DOUBLE, null, null, null, null, 0, value);
+	}
+	
+	/**
+	 * Notifier tous les listeners, avec un argument, sans tableau varargs.
+	 */
+	public boolean triggerWith(E event, Object a) {
+		return triggerTyped(event, TypedDispatch.ARGS1, a, null, null, null, 0, 0);
+	}
+	
+	/**
+	 * Notifier tous les listeners, avec deux arguments, sans tableau varargs.
+	 */
+	public boolean triggerWith(E event, Object a, Object b) {
+		return triggerTyped(event, TypedDispatch.ARGS2, a, b, null, null, 0, 0);
+	}
+	
+	/**
+	 * Notifier tous les listeners, avec trois arguments, sans tableau varargs.
+	 */
+	public boolean triggerWith(E event, Object a, Object b, Object c) {
+		return triggerTyped(event, TypedDispatch.ARGS3, a, b, c, null, 0, 0);
+	}
+	
+	/**
+	 * Notifier tous les listeners, avec quatre arguments, sans tableau varargs.
+	 */
+	public boolean triggerWith(E event, Object a, Object b, Object c, Object d) {
+		return triggerTyped(event, TypedDispatch.ARGS4, a, b, c, d, 0, 0);
+	}
+	
+	/**
+	 * Propager un event de faon asynchrone, sur l'excuteur du dispatcher.
+	 * 
+	 * @param event L'event  propager.
+	 * @param callback Reoit le retour de trigger() ou l'exception leve (peut tre NULL).
+	 * @param args Les arguments de l'event.
+	 */
+	public void triggerAsynch(final E event, final ICallback<Boolean, Throwable> callback, final Object... args) {
+		// Vrification des arguments
+		if (event == null) {
+			throw new NullPointerException();
+		}
+		getExecutor().execute(new Runnable() {
+			public void run() {
+				boolean result;
+				try {
+					// Dispatch synchrone
+					result = trigger(event, args);
+				}
+				catch (Throwable t) {
+					// Callback d'erreur
+					if (callback != null) {
+						callback.onFailure(t);
+					}
+					return;
+				}
+				// Callback de success
+				if (callback != null) {
+					callback.onSuccess(result);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Change l'excuteur utilis par triggerAsynch().
+	 * 
+	 * @param executor L'excuteur, par exemple VirtualThreads.executor().
+	 * @param ordered Si TRUE, les events sont propags un par un dans l'ordre
+	 * d'arrive. Sinon, ils peuvent tre propags en parallle.
+	 */
+	public synchronized void setExecutor(Executor executor, boolean ordered) {
+		if (executor == null) {
+			throw new NullPointerException();
+		}
+		_executor = ordered ? new SerialExecutor(executor) : executor;
+	}
+	
+	/**
+	 * Renvoie l'excuteur utilis par triggerAsynch().
+	 */
+	protected synchronized Executor getExecutor() {
+		if (_executor == null) {
+			_executor = new SerialExecutor(VirtualThreads.executor());
+		}
+		return _executor;
+	}
+	
 	protected boolean trigger(E event, IEventDispatcher<E> source, IListener<E> listenerFilter, Object... args) {
+		return dispatch(event, source, listenerFilter, args, TypedDispatch.VARARGS, null, null, null, null, 0, 0);
+	}
+	
+	/**
+	 * Point d'entre des trigger()  nombre d'arguments fixe.
+	 * 
+	 * @see TypedDispatch
+	 */
+	protected boolean triggerTyped(E event, int kind, Object a, Object b, Object c, Object d, long l, double v) {
+		return dispatch(event, this, null, null, kind, a, b, c, d, l, v);
+	}
+	
+	/**
+	 * Propagation de l'event. Les arguments sont soit dans le tableau args
+	 * (kind = VARARGS), soit  plat : le tableau n'est alors fabriqu que si
+	 * un listener non typ doit tre notifi. C'est kind qui dcide, pas args :
+	 * avec VARARGS, un tableau null est transmis tel quel aux listeners.
+	 */
+	protected boolean dispatch(E event, IEventDispatcher<E> source, IListener<E> listenerFilter, Object[] args,
+			int kind, Object a, Object b, Object c, Object d, long l, double v) {
 		
 		// Vrification des arguments
 		if (event == null) {
 			throw new NullPointerException();
 		}
 		
-		// Debug
-		if (LOGGER.isLoggable(Level.FINER)) {
-			Level lvl = Level.FINER;
-			StringBuilder sb = new StringBuilder();
-			sb.append("TRIGGER [");
-			sb.append(event);
-			sb.append("]");
-			sb.append(_sender == null ? "" : " SENDER=" + _sender.getClass().getSimpleName());
-			if (source != null && source != this) {
-				lvl = Level.FINEST;
-				sb.append(" ORIGINAL_SENDER=" + source);
-			}
-			sb.append(" ARGS=(");
-			if (args != null) {
-				int c = 0;
-				for (Object o : args) {
-					if (c++ > 0) {
-						sb.append(", ");
-					}
-					if (o == null) {
-						sb.append("null");
-					}
-					else {
-						sb.append(o.getClass().getSimpleName());
-					}
-				}
+		// Listeners librs
+		prune();
+		
+		// Debug : la cible est l'metteur d'origine en cas de redirection
+		if (Trace.enabled()) {
+			if (args == null && kind != TypedDispatch.VARARGS) {
+				args = TypedDispatch.toArray(kind, a, b, c, d, l, v);
 			}
-			sb.append(")");
-			LOGGER.log(lvl, sb.toString());
+			Trace.record(Trace.Kind.TRIGGER, this, event, source != this ? source : null, args, 0);
 		}
 		
-		// On copie la liste des listeners en synchro
-		SortedMap<Integer, Triggerable<E>> map = null;
-		synchronized (_eventsListeners) {
-			// Aucun listener
-			if (!_eventsListeners.containsKey(event)) {
-				// Redirection
-				if (_redirect != null) {
-					return _redirect.events().trigger(event, this, args);
+		// Mtriques
+		Metrics metrics = _metrics;
+		Metrics.EventCounters counters = metrics != null ? metrics.event(event) : null;
+		long start = counters != null ? System.nanoTime() : 0;
+		ListenerWatchdog watchdog = _watchdog;
+		
+		// On rcupre la chane des listeners. Elle est immuable, on peut
+		// donc la parcourir sans verrou.
+		ListenerChain<E> chain = _eventsListeners.get(event);
+		
+		// Aucun listener
+		if (chain == null) {
+			if (counters != null) {
+				counters.record(System.nanoTime() - start);
+			}
+			// Redirection
+			if (_redirect != null) {
+				if (args == null && kind != TypedDispatch.VARARGS) {
+					args = TypedDispatch.toArray(kind, a, b, c, d, l, v);
 				}
-				return true;
+				return _redirect.events().trigger(event, this, args);
 			}
-			// Liste des listeners
-			map = _eventsListeners.get(event);
+			return true;
 		}
 		
-		// Inversion de l'ordre, pour respecter les priorits : plus
+		// La chane est dj trie par priorit dcroissante : plus
 		// elle est haute, plus on est prvenu tt
-		SortedMap<Integer, Triggerable<E>> m = new TreeMap<Integer, Triggerable<E>>(Collections.reverseOrder());
-		m.putAll(map);
-		map = m;
+		final Triggerable<E>[] triggerables = chain.triggerables;
 		
 		// Indique si la propagation est interrompue par un listener
 		// (en renvoyant false)
 		boolean interrupted = false;
 		
-		// Fetch listeners list
-		for (Integer index : map.keySet()) {
-			
-			// Current listener
-			Triggerable<E> listener = map.get(index);
-			
-			// Si on ne filtre qu'un listener en particulier
-			if (listenerFilter != null) {
-				if (listener.getListener() != listenerFilter) {
-					continue;
-				}
+		// Mode parallle
+		ForkJoinPool pool = _parallelPool;
+		if (pool != null && listenerFilter == null) {
+			if (args == null && kind != TypedDispatch.VARARGS) {
+				args = TypedDispatch.toArray(kind, a, b, c, d, l, v);
 			}
-			
-			// Log
-			if (LOGGER.isLoggable(Level.FINER)) {
-				LOGGER.log(Level.FINER, "NOTIFY [" + event
-						+ "] TARGET=" + listener + "()  PRIORITY=" + index);
-			}
-			
-			// Notify du listener
-			try {
+			interrupted = fanOut(event, chain, args, counters, watchdog, pool);
+		}
+		
+		// Propagation squentielle
+		else {
+			// Fetch listeners list
+			for (int index = 0, count = triggerables.length; index < count; index++) {
 				
-				if (!listener.trigger(event, args)) {
-					
-					// On stoppe la propagation
-					interrupted = true;
-					break;
-					
-				}
+				// Current listener
+				Triggerable<E> listener = triggerables[index];
 				
-			}
-			catch (Throwable ex) {
+				// Si on ne filtre qu'un listener en particulier
+				if (listenerFilter != null) {
+					if (listener.getListener() != listenerFilter) {
+						continue;
+					}
+				}
 				
-				// Debug
-				if (LOGGER.isLoggable(Level.SEVERE)) {
-					LOGGER.log(Level.SEVERE, "Exception on callback trigger "
-							+ this.getClass().getCanonicalName() + ".trigger('"
-							+ event + "', '" + listener + "') : "
-							+ ex.getClass().getCanonicalName() + " - " + ex.getMessage());
-					ex.printStackTrace();
+				// Log
+				if (Trace.enabled()) {
+					Trace.record(Trace.Kind.NOTIFY, this, event, listener,
+							args != null || kind == TypedDispatch.VARARGS ? args : TypedDispatch.toArray(kind, a, b, c, d, l, v), chain.priorities[index]);
 				}
 				
-				// Si on stoppe la propagation
-				if (_exceptionRaiseStopPropagation) {
-					interrupted = true;
-					break;
+				// Listener en quarantaine : notifi  part, sans l'attendre
+				if (watchdog != null && watchdog.isQuarantined(key(listener))) {
+					if (args == null && kind != TypedDispatch.VARARGS) {
+						args = TypedDispatch.toArray(kind, a, b, c, d, l, v);
+					}
+					quarantine(event, listener, args, watchdog);
+					continue;
 				}
 				
+				// Notify du listener
+				ListenerWatchdog sampled = watchdog != null && watchdog.sample() ? watchdog : null;
+				long time = counters != null || sampled != null ? System.nanoTime() : 0;
+				try {
+					
+					// Listener typ : appel direct, sans tableau
+					boolean result;
+					if (args == null && kind != TypedDispatch.VARARGS && listener instanceof TypedTriggerable) {
+						result = ((TypedTriggerable<E>) listener).trigger(event, kind, a, b, c, d, l, v);
+					}
+					else {
+						if (args == null && kind != TypedDispatch.VARARGS) {
+							args = TypedDispatch.toArray(kind, a, b, c, d, l, v);
+						}
+						result = listener.trigger(event, args);
+					}
+					
+					// Mtriques
+					if (counters != null || sampled != null) {
+						measure(event, counters, sampled, listener, time, result);
+					}
+					
+					if (!result) {
+						
+						// Log
+						if (Trace.enabled()) {
+							Trace.record(Trace.Kind.HALT, this, event, listener, args, chain.priorities[index]);
+						}
+						
+						// On stoppe la propagation
+						interrupted = true;
+						break;
+						
+					}
+					
+				}
+				catch (Throwable ex) {
+					
+					// Mtriques
+					if (counters != null || sampled != null) {
+						measure(event, counters, sampled, listener, time, true);
+					}
+					if (counters != null) {
+						counters.fail(key(listener));
+					}
+					
+					// Debug
+					logException(event, listener, ex);
+					
+					// Si on stoppe la propagation
+					if (_exceptionRaiseStopPropagation) {
+						interrupted = true;
+						break;
+					}
+					
+				}
+			}
+		}
+		
+		// Mtriques : la redirection est mesure par le dispatcher cible
+		if (counters != null) {
+			counters.record(System.nanoTime() - start);
+			if (interrupted) {
+				counters.halt();
+			}
+		}
+		
+		// Redirection des events
+		if (!interrupted && _redirect != null) {
+			if (args == null && kind != TypedDispatch.VARARGS) {
+				args = TypedDispatch.toArray(kind, a, b, c, d, l, v);
+			}
+			if (!_redirect.events().trigger(event, this, args)) {
+				interrupted = true;
+			}
+		}
+		
+		return !interrupted;
+	}
+
+	/**
+	 * Propagation d'un lot d'events.
+	 */
+	protected boolean dispatchBatch(E event, List<Object[]> argsBatch, BatchMode mode) {
+		
+		// Vrification des arguments
+		if (event == null || argsBatch == null || mode == null) {
+			throw new NullPointerException();
+		}
+		if (argsBatch.isEmpty()) {
+			return true;
+		}
+		
+		// Listeners librs
+		prune();
+		
+		// Debug : une seule trace pour tout le lot
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.BATCH, this, event, null, null, argsBatch.size());
+		}
+		
+		// Mtriques
+		Metrics metrics = _metrics;
+		Metrics.EventCounters counters = metrics != null ? metrics.event(event) : null;
+		long start = counters != null ? System.nanoTime() : 0;
+		ListenerWatchdog watchdog = _watchdog;
+		
+		// Les lments du lot dont la propagation continue
+		List<Object[]> live = argsBatch;
+		
+		// Indique si un lment au moins a t arrt
+		boolean interrupted = false;
+		
+		// On rcupre la chane des listeners
+		ListenerChain<E> chain = _eventsListeners.get(event);
+		final Triggerable<E>[] triggerables = chain == null ? ListenerChain.<E>empty().triggerables : chain.triggerables;
+		
+		// Fetch listeners list
+		for (int index = 0, count = triggerables.length; index < count && !live.isEmpty(); index++) {
+			
+			// Current listener
+			Triggerable<E> listener = triggerables[index];
+			
+			// Log
+			if (Trace.enabled()) {
+				Trace.record(Trace.Kind.NOTIFY, this, event, listener, null, chain.priorities[index]);
+			}
+			
+			// Listener de lot : un seul appel, l'arrt porte sur tout le lot
+			if (listener.getListener() instanceof IBatchListener) {
+				if (!notifyBatch(event, listener, live, counters)) {
+					interrupted = true;
+					live = Collections.emptyList();
+				}
+				continue;
+			}
+			
+			// Sinon, un appel par lment
+			List<Object[]> survivors = null;
+			for (int i = 0, size = live.size(); i < size; i++) {
+				Object[] args = live.get(i);
+				if (notifyListener(event, listener, args, counters, watchdog)) {
+					if (survivors != null) {
+						survivors.add(args);
+					}
+					continue;
+				}
+				interrupted = true;
+				// Tout le lot s'arrte
+				if (mode == BatchMode.PER_BATCH) {
+					survivors = Collections.emptyList();
+					break;
+				}
+				// Seul cet lment s'arrte : on copie ceux qui continuent
+				if (survivors == null) {
+					survivors = new ArrayList<Object[]>(live.subList(0, i));
+				}
+			}
+			if (survivors != null) {
+				live = survivors;
+			}
+			
+		}
+		
+		// Mtriques : un lot compte pour autant de propagations que d'lments
+		if (counters != null) {
+			counters.record(System.nanoTime() - start, argsBatch.size());
+			if (interrupted) {
+				counters.halt();
+			}
+		}
+		
+		// Redirection des events qui n'ont pas t arrts
+		if (!live.isEmpty() && _redirect != null) {
+			if (!_redirect.events().triggerBatch(event, live)) {
+				interrupted = true;
+			}
+		}
+		
+		return !interrupted;
+	}
+	
+	/**
+	 * Propagation parallle : les listeners sont dcoups en tranches de
+	 * priorit, parcourues par priorit dcroissante. Les listeners d'une mme
+	 * tranche sont notifis en mme temps sur le pool, et la tranche suivante
+	 * ne dmarre que lorsqu'ils ont tous termin.
+	 * 
+	 * @return TRUE si la propagation a t interrompue. Les autres listeners
+	 *   de la tranche en cours ont tout de mme t notifis.
+	 */
+	private boolean fanOut(E event, ListenerChain<E> chain, Object[] args, Metrics.EventCounters counters,
+			ListenerWatchdog watchdog, ForkJoinPool pool) {
+		final Triggerable<E>[] triggerables = chain.triggerables;
+		final int[] priorities = chain.priorities;
+		final int bandWidth = _bandWidth;
+		int from = 0;
+		while (from < triggerables.length) {
+			
+			// On cherche la fin de la tranche
+			int band = Math.floorDiv(priorities[from], bandWidth);
+			int to = from + 1;
+			while (to < triggerables.length && Math.floorDiv(priorities[to], bandWidth) == band) {
+				to++;
+			}
+			
+			// Log
+			if (Trace.enabled()) {
+				Trace.record(Trace.Kind.BAND, this, event, null, args, band);
+			}
+			
+			// Un seul listener : pas besoin du pool
+			boolean result = to - from == 1
+					? notifyListener(event, triggerables[from], args, counters, watchdog)
+					: pool.invoke(new BandTask(event, triggerables, from, to, args, counters, watchdog));
+			if (!result) {
+				return true;
+			}
+			
+			from = to;
+		}
+		return false;
+	}
+	
+	/**
+	 * Notifie les listeners [from, to[ d'une tranche, en coupant la plage en
+	 * deux jusqu' n'avoir plus qu'un listener par tche.
+	 */
+	private final class BandTask extends RecursiveTask<Boolean> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final E event;
+		
+		private final Triggerable<E>[] triggerables;
+		
+		private final int from, to;
+		
+		private final Object[] args;
+		
+		private final Metrics.EventCounters counters;
+		
+		private final ListenerWatchdog watchdog;
+		
+		BandTask(E event, Triggerable<E>[] triggerables, int from, int to, Object[] args,
+				Metrics.EventCounters counters, ListenerWatchdog watchdog) {
+			this.event = event;
+			this.triggerables = triggerables;
+			this.from = from;
+			this.to = to;
+			this.args = args;
+			this.counters = counters;
+			this.watchdog = watchdog;
+		}
+		
+		@Override
+		protected Boolean compute() {
+			if (to - from == 1) {
+				return notifyListener(event, triggerables[from], args, counters, watchdog);
+			}
+			int middle = (from + to) >>> 1;
+			BandTask right = new BandTask(event, triggerables, middle, to, args, counters, watchdog);
+			right.fork();
+			boolean left = new BandTask(event, triggerables, from, middle, args, counters, watchdog).compute();
+			return right.join() & left;
+		}
+		
+	}
+	
+	/**
+	 * Active la propagation parallle : les listeners dont les priorits sont
+	 * dans la mme tranche [n * bandWidth, (n + 1) * bandWidth[ sont notifis
+	 * en mme temps sur le pool. Les tranches restent notifies par priorit
+	 * dcroissante, et un FALSE ou une exception (si _exceptionRaiseStopPropagation)
+	 * empche les tranches suivantes d'tre notifies.
+	 * 
+	 * Les listeners d'une tranche ne doivent donc pas dpendre les uns des autres.
+	 * 
+	 * @param pool Le pool, ou NULL pour revenir  la propagation squentielle.
+	 * @param bandWidth La largeur des tranches de priorit.
+	 */
+	public void setParallel(ForkJoinPool pool, int bandWidth) {
+		if (bandWidth < 1) {
+			throw new IllegalArgumentException("bandWidth must be positive");
+		}
+		_bandWidth = bandWidth;
+		_parallelPool = pool;
+	}
+	
+	/**
+	 * Notifie un listener, en dehors de la boucle principale (lots, mode
+	 * parallle).
+	 * 
+	 * @param counters Les mtriques de l'event, ou NULL.
+	 * @param watchdog Le watchdog, ou NULL.
+	 * @return FALSE si la propagation doit s'arrter.
+	 */
+	private boolean notifyListener(E event, Triggerable<E> listener, Object[] args,
+			Metrics.EventCounters counters, ListenerWatchdog watchdog) {
+		if (watchdog != null && watchdog.isQuarantined(key(listener))) {
+			quarantine(event, listener, args, watchdog);
+			return true;
+		}
+		ListenerWatchdog sampled = watchdog != null && watchdog.sample() ? watchdog : null;
+		long time = counters != null || sampled != null ? System.nanoTime() : 0;
+		try {
+			boolean result = listener.trigger(event, args);
+			if (counters != null || sampled != null) {
+				measure(event, counters, sampled, listener, time, result);
+			}
+			return result;
+		}
+		catch (Throwable ex) {
+			if (counters != null || sampled != null) {
+				measure(event, counters, sampled, listener, time, true);
+			}
+			if (counters != null) {
+				counters.fail(key(listener));
+			}
+			logException(event, listener, ex);
+			return !_exceptionRaiseStopPropagation;
+		}
+	}
+	
+	/**
+	 * Notifie un IBatchListener de tout un lot.
+	 * 
+	 * @param counters Les mtriques de l'event, ou NULL.
+	 * @return FALSE si la propagation du lot doit s'arrter.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean notifyBatch(E event, Triggerable<E> listener, List<Object[]> argsBatch, Metrics.EventCounters counters) {
+		long time = counters != null ? System.nanoTime() : 0;
+		try {
+			boolean result = ((IBatchListener<E>) listener.getListener()).notifyBatch(event, Collections.unmodifiableList(argsBatch));
+			if (counters != null) {
+				measure(event, counters, null, listener, time, result);
+			}
+			return result;
+		}
+		catch (Throwable ex) {
+			if (counters != null) {
+				measure(event, counters, null, listener, time, true);
+				counters.fail(key(listener));
+			}
+			logException(event, listener, ex);
+			return !_exceptionRaiseStopPropagation;
+		}
+	}
+	
+	/**
+	 * Enregistre une notification dans les mtriques de l'event, et la
+	 * compare au budget du listener.
+	 * 
+	 * @param counters Les mtriques de l'event, ou NULL.
+	 * @param sampled Le watchdog si cet appel a t tir au sort, ou NULL.
+	 * @param time Le System.nanoTime() du dbut de la notification.
+	 * @param result Le rsultat de la notification.
+	 */
+	private static void measure(Object event, Metrics.EventCounters counters, ListenerWatchdog sampled,
+			Triggerable<?> listener, long time, boolean result) {
+		long nanos = System.nanoTime() - time;
+		if (counters != null) {
+			Metrics.Counters listenerCounters = counters.listener(key(listener));
+			listenerCounters.record(nanos);
+			if (!result) {
+				listenerCounters.halt();
+			}
+		}
+		if (sampled != null) {
+			sampled.check(event, key(listener), nanos);
+		}
+	}
+	
+	/**
+	 * Renvoie la cl d'un listener dans les mtriques et le watchdog : le
+	 * listener lui-mme, sauf pour un listener faible, qu'elles ne doivent
+	 * pas retenir.
+	 */
+	private static Object key(Triggerable<?> triggerable) {
+		return triggerable instanceof WeakTriggerable ? triggerable : triggerable.getListener();
+	}
+	
+	/**
+	 * Notifie un listener en quarantaine sur l'excuteur du watchdog. Son
+	 * rsultat est ignor : il ne peut plus stopper la propagation.
+	 */
+	private void quarantine(final E event, final Triggerable<E> listener, final Object[] args, ListenerWatchdog watchdog) {
+		watchdog.execute(new Runnable() {
+			public void run() {
+				notifyListener(event, listener, args, null, null);
+			}
+		});
+	}
+	
+	/**
+	 * Active la surveillance des listeners trop lents.
+	 * 
+	 * @param watchdog Le watchdog, ou NULL pour ne plus surveiller.
+	 */
+	public void setWatchdog(ListenerWatchdog watchdog) {
+		_watchdog = watchdog;
+	}
+	
+	/**
+	 * Renvoie le watchdog des listeners trop lents, ou NULL.
+	 */
+	public ListenerWatchdog getWatchdog() {
+		return _watchdog;
+	}
+	
+	/**
+	 * Active la mesure de la propagation : nombre de propagations, d'arrts et
+	 * d'exceptions, et dures, par event et par listener.
+	 * 
+	 * @param metrics Les mtriques, ou NULL pour ne plus rien mesurer.
+	 */
+	public void setMetrics(Metrics metrics) {
+		_metrics = metrics;
+	}
+	
+	/**
+	 * Renvoie les mtriques de propagation, ou NULL.
+	 */
+	public Metrics getMetrics() {
+		return _metrics;
+	}
+	
+	/**
+	 * Log d'une exception leve par un listener.
+	 */
+	private void logException(E event, Triggerable<E> listener, Throwable ex) {
+		if (LOGGER.isLoggable(Level.SEVERE)) {
+			LOGGER.log(Level.SEVERE, "Exception on callback trigger "
+					+ this.getClass().getCanonicalName() + ".trigger('"
+					+ event + "', '" + listener + "') : "
+					+ ex.getClass().getCanonicalName() + " - " + ex.getMessage());
+			ex.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Modifier la porte des arrts de propagation de triggerBatch(E, List).
+	 */
+	public void setBatchMode(BatchMode mode) {
+		if (mode == null) {
+			throw new NullPointerException();
+		}
+		_batchMode = mode;
+	}
+
+	@Override
+	public void unbind(E event) {
+		if (event == null) {
+			throw new NullPointerException();
+		}
+		ListenerChain<E> chain = _eventsListeners.remove(event);
+		if (chain != null) {
+			for (Triggerable<E> triggerable : chain.triggerables) {
+				forget(event, triggerable);
+			}
+		}
+	}
+
+	@Override
+	public void unbind(IListener<E> listener) {
+		if (listener == null) {
+			throw new NullPointerException();
+		}
+		// Fetch listeners list according to events names
+		for (Object event : _eventsListeners.keySet()) {
+			remove(event, listener);
+		}
+	}
+
+	@Override
+	public boolean unbind(E event, IListener<E> listener) {
+		if (event == null || listener == null) {
+			throw new NullPointerException();
+		}
+		return remove(event, listener);
+	}
+	
+	/**
+	 * Dconnecter un listener typ sur tous les events.
+	 */
+	public void unbind(ITypedListener<E> listener) {
+		if (listener == null) {
+			throw new NullPointerException();
+		}
+		for (Object event : _eventsListeners.keySet()) {
+			remove(event, listener);
+		}
+	}
+	
+	/**
+	 * Dconnecter un listener typ sur un event en particulier.
+	 */
+	public boolean unbind(E event, ITypedListener<E> listener) {
+		if (event == null || listener == null) {
+			throw new NullPointerException();
+		}
+		return remove(event, listener);
+	}
+	
+	/**
+	 * Retire le listener de la chane de l'event, en remplaant la chane
+	 * par une copie.
+	 * 
+	 * @return TRUE si le listener a t trouv
+	 */
+	protected boolean remove(Object event, Object listener) {
+		// On recommence tant qu'un autre thread a modifi la chane entre temps
+		while (true) {
+			ListenerChain<E> chain = _eventsListeners.get(event);
+			if (chain == null) {
+				return false;
+			}
+			Triggerable<E> triggerable = chain.find(listener);
+			if (triggerable == null) {
+				return false;
+			}
+			if (replace(event, chain, chain.without(triggerable))) {
+				forget(event, triggerable);
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Retire une callback inscrite avec la priorit donne. Les priorits
+	 * d'une chane tant uniques et tries, la callback est retrouve par
+	 * dichotomie, sans comparer les listeners.
+	 * 
+	 * @return TRUE si la callback tait encore inscrite
+	 */
+	protected boolean remove(Object event, Triggerable<E> triggerable, int priority) {
+		// On recommence tant qu'un autre thread a modifi la chane entre temps
+		while (true) {
+			ListenerChain<E> chain = _eventsListeners.get(event);
+			if (chain == null) {
+				return false;
+			}
+			int pos = chain.indexOf(priority);
+			if (pos < 0 || chain.triggerables[pos] != triggerable) {
+				return false;
+			}
+			if (replace(event, chain, chain.without(pos))) {
+				forget(event, triggerable);
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Remplace la chane de l'event, ou retire l'event si la nouvelle chane
+	 * est vide, pour que les events abandonns ne s'accumulent pas.
+	 * 
+	 * @return FALSE si un autre thread a modifi la chane entre temps
+	 */
+	private boolean replace(Object event, ListenerChain<E> chain, ListenerChain<E> next) {
+		return next.triggerables.length == 0
+				? _eventsListeners.remove(event, chain)
+				: _eventsListeners.replace(event, chain, next);
+	}
+	
+	/**
+	 * Oublie une callback retire dans les mtriques et dans le watchdog
+	 * (s'il n'est plus connect  aucun event), pour qu'ils ne retiennent pas
+	 * le listener.
+	 */
+	private void forget(Object event, Triggerable<E> removed) {
+		Object key = key(removed);
+		Metrics metrics = _metrics;
+		if (metrics != null) {
+			metrics.forget(event, key);
+		}
+		ListenerWatchdog watchdog = _watchdog;
+		if (watchdog == null || !watchdog.tracks(key)) {
+			return;
+		}
+		for (ListenerChain<E> chain : _eventsListeners.values()) {
+			for (Triggerable<E> triggerable : chain.triggerables) {
+				if (key(triggerable) == key) {
+					return;
+				}
+			}
+		}
+		watchdog.forget(key);
+	}
+	
+	@Override
+	public IEventDispatcher<E> events() {
+		return this;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		_eventsListeners.clear();
+		_eventsListeners = null;
+		_sender = null;
+		_redirect = null;
+	}
+
+	/**
+	 * Liste immuable des callbacks d'un event, trie par priorit dcroissante.
+	 * 
+	 * @param <E> Le type d'event
+	 */
+	protected static final class ListenerChain<E> {
+		
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		private static final ListenerChain EMPTY = new ListenerChain<Object>(new int[0], new Triggerable[0]);
+		
+		/**
+		 * Les priorits, dans le mme ordre que les callbacks
+		 */
+		final int[] priorities;
+		
+		/**
+		 * Les callbacks, de la plus prioritaire  la moins prioritaire
+		 */
+		final Triggerable<E>[] triggerables;
+		
+		private ListenerChain(int[] priorities, Triggerable<E>[] triggerables) {
+			this.priorities = priorities;
+			this.triggerables = triggerables;
+		}
+		
+		@SuppressWarnings("unchecked")
+		static <E> ListenerChain<E> empty() {
+			return EMPTY;
+		}
+		
+		/**
+		 * Renvoie la position de la priorit dans la chane, ou -1. Les
+		 * priorits sont uniques et tries par ordre dcroissant.
+		 */
+		int indexOf(int priority) {
+			int low = 0;
+			int high = priorities.length - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				int p = priorities[middle];
+				if (p > priority) {
+					low = middle + 1;
+				}
+				else if (p < priority) {
+					high = middle - 1;
+				}
+				else {
+					return middle;
+				}
+			}
+			return -1;
+		}
+		
+		/**
+		 * Renvoie la premire priorit libre  partir de celle donne. Les
+		 * priorits dj prises au dessus d'elle sont juste avant dans le
+		 * tableau : on remonte tant qu'elles se suivent.
+		 */
+		int freePriority(int priority) {
+			int pos = indexOf(priority);
+			if (pos < 0) {
+				return priority;
+			}
+			while (pos > 0 && priorities[pos - 1] == priority + 1) {
+				pos--;
+				priority++;
+			}
+			return priority + 1;
+		}
+		
+		/**
+		 * Renvoie une copie de la chane avec la callback insre  sa place.
+		 */
+		ListenerChain<E> with(int priority, Triggerable<E> triggerable) {
+			int length = priorities.length;
+			// Position d'insertion : aprs toutes les priorits plus hautes
+			int pos = 0;
+			while (pos < length && priorities[pos] > priority) {
+				pos++;
 			}
+			int[] p = new int[length + 1];
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			Triggerable<E>[] t = new Triggerable[length + 1];
+			System.arraycopy(priorities, 0, p, 0, pos);
+			System.arraycopy(triggerables, 0, t, 0, pos);
+			p[pos] = priority;
+			t[pos] = triggerable;
+			System.arraycopy(priorities, pos, p, pos + 1, length - pos);
+			System.arraycopy(triggerables, pos, t, pos + 1, length - pos);
+			return new ListenerChain<E>(p, t);
 		}
 		
-		// Redirection des events
-		if (!interrupted && _redirect != null) {
-			if (!_redirect.events().trigger(event, this, args)) {
-				interrupted = true;
+		/**
+		 * Renvoie la premire callback du listener donn (ou la callback
+		 * elle-mme), ou NULL si le listener n'y est pas.
+		 */
+		Triggerable<E> find(Object listener) {
+			for (Triggerable<E> triggerable : triggerables) {
+				if (triggerable == listener || triggerable.getListener() == listener) {
+					return triggerable;
+				}
 			}
+			return null;
 		}
 		
-		return !interrupted;
-	}
-
-	@Override
-	public void unbind(E event) {
-		if (event == null) {
-			throw new NullPointerException();
-		}
-		synchronized (_eventsListeners) {
-			_eventsListeners.remove(event);
-		}
-	}
-
-	@Override
-	public void unbind(IListener<E> listener) {
-		if (listener == null) {
-			throw new NullPointerException();
-		}
-		synchronized (_eventsListeners) {
-			// Fetch listeners list according to events names
-			for (Map<Integer, Triggerable<E>> m : _eventsListeners.values()) {
-				if (m.containsValue(listener)) {
-					// Fetch listeners
-					for (Integer i : m.keySet()) {
-						if (m.get(i).getListener() == listener) {
-							m.remove(i);
-							break;
-						}
-					}
+		/**
+		 * Renvoie une copie de la chane sans la callback donne, ou la chane
+		 * elle-mme si la callback n'y est pas.
+		 */
+		ListenerChain<E> without(Triggerable<E> triggerable) {
+			for (int pos = 0, length = triggerables.length; pos < length; pos++) {
+				if (triggerables[pos] == triggerable) {
+					return without(pos);
 				}
 			}
+			return this;
+		}
+		
+		/**
+		 * Renvoie une copie de la chane sans la callback  la position donne.
+		 */
+		ListenerChain<E> without(int pos) {
+			int length = triggerables.length;
+			int[] p = new int[length - 1];
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			Triggerable<E>[] t = new Triggerable[length - 1];
+			System.arraycopy(priorities, 0, p, 0, pos);
+			System.arraycopy(triggerables, 0, t, 0, pos);
+			System.arraycopy(priorities, pos + 1, p, pos, length - pos - 1);
+			System.arraycopy(triggerables, pos + 1, t, pos, length - pos - 1);
+			return new ListenerChain<E>(p, t);
 		}
+		
 	}
-
-	@Override
-	public boolean unbind(E event, IListener<E> listener) {
-		if (event == null || listener == null) {
-			throw new NullPointerException();
+	
+	/**
+	 * L'inscription d'une callback : elle la retire de la chane de son event
+	 * par sa priorit, sans parcourir les autres events.
+	 */
+	private final class Subscription implements ISubscription {
+		
+		private final E event;
+		
+		private final Triggerable<E> triggerable;
+		
+		private final int priority;
+		
+		Subscription(E event, Triggerable<E> triggerable, int priority) {
+			this.event = event;
+			this.triggerable = triggerable;
+			this.priority = priority;
 		}
-		Map<Integer, Triggerable<E>> map;
-		synchronized (_eventsListeners) {
-			if (!_eventsListeners.containsKey(event)) {
-				return false;
+		
+		@Override
+		public void close() {
+			// Le dispatcher a pu tre dtruit entre temps
+			if (_eventsListeners != null) {
+				remove(event, triggerable, priority);
 			}
-			map = _eventsListeners.get(event);
 		}
-		// Fetch listeners
-		for (Integer i : map.keySet()) {
-			if (map.get(i).getListener() == listener) {
-				map.remove(i);
-				return true;
-			}
+		
+		@Override
+		public String toString() {
+			return "Subscription[" + event + ", " + triggerable + "]";
 		}
-		return false;
+		
 	}
 	
-	@Override
-	public IEventDispatcher<E> events() {
-		return this;
-	}
-
-	@Override
-	public synchronized void dispose() {
-		_eventsListeners.clear();
-		_eventsListeners = null;
-		_sender = null;
-		_redirect = null;
-	}
-
 	/**
 	 * Cette interface est utilise pour notifier les listeners de
 	 * l'arrive d'un event.
@@ -363,7 +1393,7 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 		/**
 		 * Renvoie le listener.
 		 */
-		public IListener<E> getListener();
+		public Object getListener();
 	}
 	
 	/**
@@ -412,14 +1442,129 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 		}
 	}
 	
+	/**
+	 * Callback d'un listener connect par bindWeak(), rfrenc faiblement.
+	 * 
+	 * Une fois le listener libr, la callback ne fait plus rien, et elle se
+	 * retrouve dans la file _cleared du dispatcher pour tre retire.
+	 */
+	protected static class WeakTriggerable<E> extends WeakReference<IListener<E>> implements Triggerable<E> {
+		
+		/**
+		 * L'event de la chane qui contient cette callback
+		 */
+		final Object event;
+		
+		/**
+		 * Le nom de la classe du listener, pour les logs
+		 */
+		private final String name;
+		
+		public WeakTriggerable(Object event, IListener<E> listener, ReferenceQueue<Object> queue) {
+			super(listener, queue);
+			this.event = event;
+			this.name = listener.getClass().getSimpleName();
+		}
+		
+		@Override
+		public boolean trigger(E event, Object... args) throws Exception {
+			IListener<E> listener = get();
+			return listener == null || listener.notifyEvent(event, args);
+		}
+		
+		/**
+		 * Renvoie le listener associ, ou NULL s'il a t libr
+		 */
+		@Override
+		public IListener<E> getListener() {
+			return get();
+		}
+		
+		@Override
+		public String toString() {
+			return name + ".onNotify (weak)";
+		}
+	}
+	
+	/**
+	 * Cet objet dsigne un listener typ, c--d qui implmente une des
+	 * interfaces de ITypedListener.
+	 * 
+	 * @param <E> Le type d'event
+	 */
+	protected static class TypedTriggerable<E> implements Triggerable<E> {
+		
+		/**
+		 * Le listener associ
+		 */
+		private ITypedListener<E> listener;
+		
+		/**
+		 * Constructeur
+		 */
+		public TypedTriggerable(ITypedListener<E> listener) {
+			this.listener = listener;
+		}
+		
+		/**
+		 * Envoi de la notification, depuis un tableau d'arguments
+		 */
+		@Override
+		public boolean trigger(E event, Object... args) throws Exception {
+			return TypedDispatch.notify(listener, event, args);
+		}
+		
+		/**
+		 * Envoi de la notification, avec les arguments  plat
+		 */
+		public boolean trigger(E event, int kind, Object a, Object b, Object c, Object d, long l, double v) {
+			return TypedDispatch.notify(listener, event, kind, a, b, c, d, l, v);
+		}
+		
+		/**
+		 * Renvoie le listener associ
+		 */
+		@Override
+		public ITypedListener<E> getListener() {
+			return listener;
+		}
+		
+		/**
+		 * Affiche cet objet sous forme de string
+		 */
+		@Override
+		public String toString() {
+			return listener.getClass().getSimpleName() + ".notifyEvent";
+		}
+	}
+	
 	/**
 	 * Cet objet dsigne un listener simple, quand un nom de mthode
 	 * est donn et qu'on va le chercher en utilisant la rflexion.
 	 * 
+	 * La recherche de la mthode n'est faite qu'une fois par signature
+	 * d'arguments : le rsultat est conserv sous forme de MethodHandle
+	 * dans un cache partag, et la dernire signature rencontre est
+	 * garde dans l'objet pour que le trigger n'alloue rien.
+	 * 
 	 * @param <E> Le type d'event
 	 */
 	protected static class MethodTriggerable<E> implements Triggerable<E> {
 		
+		/**
+		 * Cache des mthodes rsolues, par classe de listener puis par nom de
+		 * mthode : un invoker par combinaison de classes d'arguments.
+		 * 
+		 * Un ClassValue ne retient pas la classe du listener, ni donc son
+		 * classloader.
+		 */
+		private static final ClassValue<ConcurrentMap<String, MethodInvoker[]>> INVOKERS = new ClassValue<ConcurrentMap<String, MethodInvoker[]>>() {
+			@Override
+			protected ConcurrentMap<String, MethodInvoker[]> computeValue(Class<?> type) {
+				return new ConcurrentHashMap<String, MethodInvoker[]>();
+			}
+		};
+		
 		/**
 		 * Le listener cible
 		 */
@@ -430,6 +1575,11 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 		 */
 		private String methodName;
 		
+		/**
+		 * Le dernier invoker utilis (cache monomorphe)
+		 */
+		private volatile MethodInvoker lastInvoker;
+		
 		/**
 		 * Constructeur
 		 */
@@ -441,6 +1591,99 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 		@Override
 		public boolean trigger(E event, Object... args) throws Exception {
 			
+			// On rutilise la dernire mthode si les arguments ont les mmes classes
+			MethodInvoker invoker = lastInvoker;
+			if (invoker == null || !invoker.matches(args)) {
+				invoker = getInvoker(event, args);
+				lastInvoker = invoker;
+			}
+			
+			// Aucune callback trouv
+			if (invoker.handle == null) {
+				if (LOGGER.isLoggable(Level.WARNING)) {
+					StringBuilder sb = new StringBuilder();
+					sb.append("Method ");
+					sb.append(methodName);
+					sb.append("(");
+					for (int i = 0, l = args.length; i < l; i++) {
+						if (i > 0) sb.append(", ");
+						sb.append(args[i] == null ? "NULL" : args[i].getClass().getSimpleName());
+					}
+					sb.append(") not found on ");
+					sb.append(listener.toString());
+					sb.append(" (found ");
+					sb.append(invoker.count);
+					sb.append(" method(s) with this name)");
+					LOGGER.log(Level.WARNING, sb.toString());
+				}
+				// On laisse continuer la propagation.
+				return true;
+			}
+			
+			// Invocation directe, les arguments en trop sont ignors par le handle
+			Object result;
+			try {
+				result = (Object) invoker.handle.invokeExact(listener, args);
+			}
+			catch (Exception | Error ex) {
+				throw ex;
+			}
+			catch (Throwable t) {
+				throw new RuntimeException(t);
+			}
+			
+			// Si la mthode renvoie une boolean, on s'en sert pour le retour
+			if (invoker.returnsBoolean) {
+				return (Boolean) result;
+			}
+			// Sinon on renvoie TRUE
+			return true;
+		
+		}
+		
+		/**
+		 * Renvoie l'invoker depuis le cache partag, en le rsolvant si c'est
+		 * la premire fois que ces classes d'arguments sont rencontres. La
+		 * recherche dans le cache n'alloue rien.
+		 */
+		private MethodInvoker getInvoker(E event, Object[] args) throws Exception {
+			ConcurrentMap<String, MethodInvoker[]> table = INVOKERS.get(listener.getClass());
+			MethodInvoker[] invokers = table.get(methodName);
+			if (invokers != null) {
+				for (MethodInvoker invoker : invokers) {
+					if (invoker.matches(args)) {
+						return invoker;
+					}
+				}
+			}
+			// Rsolution, puis ajout au tableau (remplac par une copie)
+			Class<?>[] types = new Class<?>[args.length];
+			for (int i = 0, l = args.length; i < l; i++) {
+				types[i] = args[i] == null ? null : args[i].getClass();
+			}
+			MethodInvoker invoker = resolve(event, types, args);
+			while (true) {
+				invokers = table.get(methodName);
+				if (invokers == null) {
+					if (table.putIfAbsent(methodName, new MethodInvoker[] { invoker }) == null) {
+						return invoker;
+					}
+				}
+				else {
+					MethodInvoker[] copy = Arrays.copyOf(invokers, invokers.length + 1);
+					copy[invokers.length] = invoker;
+					if (table.replace(methodName, invokers, copy)) {
+						return invoker;
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Recherche de la mthode, par rflexion.
+		 */
+		private MethodInvoker resolve(E event, Class<?>[] types, Object[] args) throws Exception {
+			
 			// Technique 1
 			//
 			// On recherche une mthode qui a exactement la bonne
@@ -465,7 +1708,7 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 				// Vrification du nombre d'arguments
 				if (params.length > args.length) continue;
 				
-				// Pour tester la validit des arguments par rapport au nombre de paramtres
+				// Pour tester la validit des arguments par rapport au nombre de paramtres
 				boolean valid = true;
 				
 				// On parcours les paramtres
@@ -528,80 +1771,47 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 
 			}
 			
-			// Technique 2
-			//
-			// On recherche une mthode ayant le nom donn et qui a une String et
-			// un Object[] en argument : comme notifyEvent() et IListener.
-			//
-			// NOTE : c'est couteux et c'est pas utile normalement car on utilise
-			// plutot la InterfaceTriggerable.
-			//
-			/*if (m == null) {
-				try {
-					
-					// Recherche de la mthode par rapport  sa signature
-					m = listener.getClass().getMethod(methodName, new Class<?>[] {
-						String.class,
-						Object[].class
-					});
-					
-					// Copie des arguments, en ajoutant le nom de l'event en premier
-					args = new Object[] { event, args };
-					
-				} catch (Throwable ex) { }
-			}*/
-			
-			// Aucune callback trouv
+			// Aucune callback trouv : on garde quand mme le rsultat en cache
 			if (m == null) {
-				if (LOGGER.isLoggable(Level.WARNING)) {
-					StringBuilder sb = new StringBuilder();
-					sb.append("Method ");
-					sb.append(methodName);
-					sb.append("(");
-					for (int i = 0, l = args.length; i < l; i++) {
-						if (i > 0) sb.append(", ");
-						sb.append(args[i] == null ? "NULL" : args[i].getClass().getSimpleName());
-					}
-					sb.append(") not found on ");
-					sb.append(listener.toString());
-					sb.append(" (found ");
-					sb.append(count);
-					sb.append(" method(s) with this name)");
-					LOGGER.log(Level.WARNING, sb.toString());
-				}
-				// On laisse continuer la propagation.
-				return true;
-			}
-			
-			// On adapte le nombre d'argument  la mthode
-			int length = m.getParameterTypes().length;
-			if (length != args.length) {
-				Object[] copy = new Object[length];
-				for (int i = 0; i < length; i++) {
-					copy[i] = args[i];
-				}
-				args = copy;
-				copy = null;
+				return new MethodInvoker(types, null, false, count);
 			}
 			
 			// Pour permetre l'invocation d'une mthode dans une classe anonyme
 			m.setAccessible(true);
 			
-			// Si la mthode renvoie une boolean, on s'en sert pour le retour
-			if (m.getReturnType().toString().equals("boolean") || m.getReturnType() == Boolean.class) {
-				return (Boolean) m.invoke(listener, args);
+			// Fabrication du handle : (Object listener, Object[] args) -> Object
+			Class<?>[] params = m.getParameterTypes();
+			int length = params.length;
+			MethodHandle handle = MethodHandles.lookup().unreflect(m);
+			if (java.lang.reflect.Modifier.isStatic(m.getModifiers())) {
+				handle = handle.asType(MethodType.genericMethodType(length));
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
 			}
-			// Sinon on fait juste l'invocation, et on renvera TRUE  la fin
 			else {
-				m.invoke(listener, args);
-				return true;
+				handle = handle.asType(MethodType.genericMethodType(length + 1));
+			}
+			
+			// Chaque paramtre est lu directement dans le tableau d'arguments, ce
+			// qui vite d'adapter le tableau au nombre de paramtres de la mthode
+			MethodHandle getter = MethodHandles.arrayElementGetter(Object[].class);
+			int[] reorder = new int[length + 1];
+			for (int i = 0; i < length; i++) {
+				handle = MethodHandles.filterArguments(handle, i + 1, MethodHandles.insertArguments(getter, 1, i));
+				reorder[i + 1] = 1;
 			}
+			handle = MethodHandles.permuteArguments(handle,
+					MethodType.methodType(Object.class, Object.class, Object[].class), reorder);
+			
+			// Si la mthode renvoie une boolean, on s'en servira pour le retour
+			boolean returnsBoolean = m.getReturnType() == boolean.class || m.getReturnType() == Boolean.class;
+			
+			return new MethodInvoker(types, handle, returnsBoolean, count);
 		
 		}
 		
 		@Override
-		public IListener<E> getListener() {
-			return (IListener<E>) listener;
+		public Object getListener() {
+			return listener;
 		}
 		
 		@Override
@@ -610,6 +1820,54 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 		}
 		
 	}
+	
+	/**
+	 * Une mthode rsolue, prte  tre invoque.
+	 */
+	protected static final class MethodInvoker {
+		
+		/**
+		 * Les classes des arguments pour lesquelles la mthode a t rsolue
+		 */
+		private final Class<?>[] types;
+		
+		/**
+		 * Le handle (Object listener, Object[] args) -> Object, ou NULL si
+		 * aucune mthode ne correspond
+		 */
+		final MethodHandle handle;
+		
+		/**
+		 * Indique si la mthode renvoie un boolean
+		 */
+		final boolean returnsBoolean;
+		
+		/**
+		 * Nombre de mthodes trouves avec ce nom (pour les logs)
+		 */
+		final int count;
+		
+		public MethodInvoker(Class<?>[] types, MethodHandle handle, boolean returnsBoolean, int count) {
+			this.types = types;
+			this.handle = handle;
+			this.returnsBoolean = returnsBoolean;
+			this.count = count;
+		}
+		
+		/**
+		 * Vrifie, sans allocation, que les arguments ont les mmes classes
+		 * que ceux pour lesquels la mthode a t rsolue.
+		 */
+		boolean matches(Object[] args) {
+			if (args.length != types.length) return false;
+			for (int i = 0, l = args.length; i < l; i++) {
+				Class<?> c = args[i] == null ? null : args[i].getClass();
+				if (c != types[i]) return false;
+			}
+			return true;
+		}
+		
+	}
 
 	@Override
 	public void redirect(E event, IObservable<E> target) {
@@ -640,13 +1898,8 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 	public void redirect(IObservable<E> target) {
 		
 		// Log
-		if (LOGGER.isLoggable(Level.FINER)) {
-			if (target != null) {
-				LOGGER.log(Level.FINER, "REDIRECT " + this + " -> "+ target.events());
-			}
-			else {
-				LOGGER.log(Level.FINER, "UNREDIRECT " + this);
-			}
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.REDIRECT, this, null, target, null, 0);
 		}
 		
 		// On enregistre la cible de la redirection
@@ -662,8 +1915,8 @@ public class EventDispatcher<E> implements IEventDispatcher<E> {
 	@Override
 	public int getObserversCount() {
 		int count = 0;
-		for (Object event : _eventsListeners.keySet()) {
-			count =+ _eventsListeners.get(event).size();
+		for (ListenerChain<E> chain : _eventsListeners.values()) {
+			count =+ chain.triggerables.length;
 		}
 		return count;
 	}
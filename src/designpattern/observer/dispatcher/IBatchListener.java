@@ -0,0 +1,35 @@
+package designpattern.observer.dispatcher;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Un listener qui reoit en un seul appel tous les events d'un triggerBatch().
+ * 
+ * Il s'inscrit avec le bind() habituel. Lors d'un trigger() simple, il reoit
+ * un lot d'un seul lment.
+ * 
+ * <E> Le type d'event
+ */
+@FunctionalInterface
+public interface IBatchListener<E> extends IListener<E> {
+
+	/**
+	 * Appel lors de la notification d'un lot d'events.
+	 * 
+	 * Le retour FALSE stoppe la propagation de tout le lot : les listeners
+	 * de priorit infrieure ne le recevront pas.
+	 * 
+	 * @param event L'identifiant ou l'objet de l'event
+	 * @param argsBatch Les arguments de chaque event du lot, dans l'ordre.
+	 *   La liste ne doit pas tre modifie, ni conserve aprs l'appel.
+	 * @return TRUE pour continuer la propagation du lot.
+	 */
+	public boolean notifyBatch(E event, List<Object[]> argsBatch);
+
+	@Override
+	public default boolean notifyEvent(E event, Object... args) {
+		return notifyBatch(event, Collections.singletonList(args));
+	}
+
+}
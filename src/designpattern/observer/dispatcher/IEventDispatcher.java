@@ -1,5 +1,7 @@
 package designpattern.observer.dispatcher;
 
+import java.util.List;
+
 /**
  * Interface pour les objets qui implmentent le pattern listener.
  * Avec gestion de la priorit, et de l'interruption de propagation.
@@ -34,6 +36,27 @@ public interface IEventDispatcher<E> extends IObservable<E> {
 	 */
 	public void bind(E event, Object listener, String methodName, Integer priority);
 	
+	/**
+	 * Comme bind(), mais renvoie l'inscription, qui permet de retirer ce
+	 * listener sans parcourir les events.
+	 */
+	public ISubscription subscribe(E event, IListener<E> listener);
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribe(E event, IListener<E> listener, Integer priority);
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribe(E event, Object listener, String methodName);
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribe(E event, Object listener, String methodName, Integer priority);
+	
 	/**
 	 * Dconnecter tous les listeners sur un event.
 	 */
@@ -64,6 +87,12 @@ public interface IEventDispatcher<E> extends IObservable<E> {
 	 */
 	public boolean trigger(E event, IEventDispatcher<E> source, Object... args);
 	
+	/**
+	 * Notifier tous les listeners d'un lot d'events, en un seul passage sur
+	 * la chane des listeners. Les IBatchListener reoivent le lot entier.
+	 */
+	public boolean triggerBatch(E event, List<Object[]> argsBatch);
+	
 	/**
 	 * Rediriger des events vers un autre IObservable
 	 */
@@ -0,0 +1,23 @@
+package designpattern.observer.dispatcher;
+
+/**
+ * Reoit les listeners qui ont dpass leur budget de temps.
+ *
+ * @see ListenerWatchdog
+ */
+@FunctionalInterface
+public interface ISlowListenerHandler {
+
+	/**
+	 * Appel dans le thread de la propagation, juste aprs la notification
+	 * trop lente. Ne doit donc pas bloquer  son tour.
+	 *
+	 * @param event L'event propag.
+	 * @param listener Le listener trop lent.
+	 * @param nanos La dure de la notification, en nanosecondes.
+	 * @param budget Le budget du listener, en nanosecondes.
+	 * @param quarantined TRUE si le listener vient d'tre mis en quarantaine.
+	 */
+	public void onSlowListener(Object event, Object listener, long nanos, long budget, boolean quarantined);
+
+}
@@ -0,0 +1,30 @@
+package designpattern.observer.dispatcher;
+
+/**
+ * L'inscription d'un listener, renvoye par les subscribe() des dispatchers
+ * et des sources, et par les add() des metteurs.
+ *
+ * Elle retire exactement ce listener, sans le rechercher parmi les autres
+ * ni dans les autres events. C'est aussi le seul moyen de retirer un
+ * listener sans identit stable, comme une rfrence de mthode : chaque
+ * valuation de o::onEvent fabrique une nouvelle instance.
+ */
+public interface ISubscription extends AutoCloseable {
+
+	/**
+	 * Une inscription qui n'a rien inscrit (source dsactive par exemple).
+	 */
+	public static final ISubscription NONE = new ISubscription() {
+		@Override
+		public void close() {
+		}
+	};
+
+	/**
+	 * Dsinscrit le listener. Sans effet s'il a dj t retir, par un
+	 * autre close() ou un unbind().
+	 */
+	@Override
+	public void close();
+
+}
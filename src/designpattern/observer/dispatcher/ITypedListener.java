@@ -0,0 +1,82 @@
+package designpattern.observer.dispatcher;
+
+/**
+ * Interface commune des listeners typs.
+ * 
+ * Contrairement  IListener, ces listeners reoivent les arguments de l'event
+ * un par un, avec leur type. Associs aux triggerWith() et triggerNoArgs()
+ * ou aux triggerInt(), triggerLong() et triggerDouble(), ils permettent de
+ * propager un event sans allouer de tableau d'arguments ni de wrapper
+ * (Double, Integer...).
+ * 
+ * Comme pour IListener, le retour FALSE interrompt la propagation.
+ * 
+ * <E> Le type d'event
+ */
+public interface ITypedListener<E> {
+
+	/**
+	 * Listener d'un event sans argument.
+	 */
+	@FunctionalInterface
+	public static interface Args0<E> extends ITypedListener<E> {
+		public boolean notifyEvent(E event);
+	}
+	
+	/**
+	 * Listener d'un event  un argument.
+	 */
+	@FunctionalInterface
+	public static interface Args1<E, A> extends ITypedListener<E> {
+		public boolean notifyEvent(E event, A a);
+	}
+	
+	/**
+	 * Listener d'un event  deux arguments.
+	 */
+	@FunctionalInterface
+	public static interface Args2<E, A, B> extends ITypedListener<E> {
+		public boolean notifyEvent(E event, A a, B b);
+	}
+	
+	/**
+	 * Listener d'un event  trois arguments.
+	 */
+	@FunctionalInterface
+	public static interface Args3<E, A, B, C> extends ITypedListener<E> {
+		public boolean notifyEvent(E event, A a, B b, C c);
+	}
+	
+	/**
+	 * Listener d'un event  quatre arguments.
+	 */
+	@FunctionalInterface
+	public static interface Args4<E, A, B, C, D> extends ITypedListener<E> {
+		public boolean notifyEvent(E event, A a, B b, C c, D d);
+	}
+	
+	/**
+	 * Listener d'un event portant un int.
+	 */
+	@FunctionalInterface
+	public static interface OfInt<E> extends ITypedListener<E> {
+		public boolean notifyEvent(E event, int value);
+	}
+	
+	/**
+	 * Listener d'un event portant un long.
+	 */
+	@FunctionalInterface
+	public static interface OfLong<E> extends ITypedListener<E> {
+		public boolean notifyEvent(E event, long value);
+	}
+	
+	/**
+	 * Listener d'un event portant un double.
+	 */
+	@FunctionalInterface
+	public static interface OfDouble<E> extends ITypedListener<E> {
+		public boolean notifyEvent(E event, double value);
+	}
+	
+}
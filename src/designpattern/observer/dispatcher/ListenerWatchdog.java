@@ -0,0 +1,318 @@
+package designpattern.observer.dispatcher;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Surveille la dure des notifications d'un EventDispatcher.
+ *
+ * Dans une chane de priorits, un listener qui bloque retarde tous les
+ * listeners suivants et le thread qui propage. Le watchdog mesure les appels
+ * aux listeners et signale ceux qui dpassent leur budget de temps.
+ *
+ * Pour pouvoir rester actif en production, seule une partie des appels est
+ * mesure (voir setSampling()) : les autres ne cotent qu'un tirage
+ * alatoire, sans appel  System.nanoTime().
+ *
+ * Optionnellement, un listener qui dpasse son budget trop souvent est mis
+ * en quarantaine : il est ensuite notifi  part, sur un excuteur, et ne
+ * retarde plus la propagation. Il ne peut alors plus stopper la propagation.
+ * Les notifications en attente sur cet excuteur sont bornes : au-del,
+ * elles sont abandonnes (voir getDropped()).
+ *
+ * Un listener dconnect de tous les events est oubli (budget compris).
+ *
+ * @see EventDispatcher#setWatchdog(ListenerWatchdog)
+ */
+public class ListenerWatchdog {
+
+	/**
+	 * Le handler par dfaut : un warning dans le logger "Events".
+	 */
+	public static final ISlowListenerHandler LOG = new ISlowListenerHandler() {
+		@Override
+		public void onSlowListener(Object event, Object listener, long nanos, long budget, boolean quarantined) {
+			if (EventDispatcher.LOGGER.isLoggable(Level.WARNING)) {
+				EventDispatcher.LOGGER.log(Level.WARNING, "Slow listener on event '" + event + "' : "
+						+ listener + " took " + TimeUnit.NANOSECONDS.toMicros(nanos) + "us (budget "
+						+ TimeUnit.NANOSECONDS.toMicros(budget) + "us)"
+						+ (quarantined ? ", moved to quarantine" : ""));
+			}
+		}
+	};
+
+	/**
+	 * Le nombre maximum de notifications en quarantaine en attente, par dfaut.
+	 */
+	public static final int DEFAULT_QUARANTINE_CAPACITY = 1024;
+
+	/**
+	 * Le budget par dfaut, en nanosecondes.
+	 */
+	private final long _budget;
+
+	/**
+	 * Les budgets propres  certains listeners, en nanosecondes.
+	 */
+	private final Map<Object, Long> _budgets = new ConcurrentHashMap<Object, Long>();
+
+	/**
+	 * Un appel sur _sampling est mesur.
+	 */
+	private volatile int _sampling = 1;
+
+	private volatile ISlowListenerHandler _handler = LOG;
+
+	/**
+	 * Nombre de dpassements avant la quarantaine, 0 (par dfaut) pour ne
+	 * jamais mettre en quarantaine.
+	 */
+	private volatile int _quarantineAfter = 0;
+
+	/**
+	 * L'excuteur des listeners en quarantaine.
+	 */
+	private volatile Executor _quarantineExecutor = null;
+
+	/**
+	 * Le nombre maximum de notifications en quarantaine en attente.
+	 */
+	private volatile int _quarantineCapacity = DEFAULT_QUARANTINE_CAPACITY;
+
+	/**
+	 * Les notifications en quarantaine confies  l'excuteur et pas encore
+	 * termines.
+	 */
+	private final AtomicInteger _pending = new AtomicInteger();
+
+	/**
+	 * Les notifications en quarantaine abandonnes faute de place.
+	 */
+	private final AtomicLong _dropped = new AtomicLong();
+
+	/**
+	 * Nombre de dpassements, par listener.
+	 */
+	private final Map<Object, AtomicInteger> _offenses = new ConcurrentHashMap<Object, AtomicInteger>();
+
+	/**
+	 * Les listeners en quarantaine.
+	 */
+	private final Set<Object> _quarantined = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param budget Le budget par dfaut d'une notification.
+	 * @param unit L'unit du budget.
+	 */
+	public ListenerWatchdog(long budget, TimeUnit unit) {
+		if (budget < 0) {
+			throw new IllegalArgumentException("budget must be positive");
+		}
+		_budget = unit.toNanos(budget);
+	}
+
+	/**
+	 * Donne un budget propre  un listener.
+	 */
+	public void setBudget(Object listener, long budget, TimeUnit unit) {
+		if (budget < 0) {
+			throw new IllegalArgumentException("budget must be positive");
+		}
+		_budgets.put(listener, unit.toNanos(budget));
+	}
+
+	/**
+	 * Ne mesure qu'un appel sur n, tir au hasard.
+	 *
+	 * @param n 1 (par dfaut) pour mesurer tous les appels.
+	 */
+	public void setSampling(int n) {
+		if (n < 1) {
+			throw new IllegalArgumentException("sampling must be positive");
+		}
+		_sampling = n;
+	}
+
+	/**
+	 * Change le handler qui reoit les dpassements.
+	 */
+	public void setHandler(ISlowListenerHandler handler) {
+		if (handler == null) {
+			throw new NullPointerException("handler is null");
+		}
+		_handler = handler;
+	}
+
+	/**
+	 * Active la quarantaine, sur un excuteur qui notifie les listeners en
+	 * quarantaine un par un, dans l'ordre des events.
+	 *
+	 * @param offenses Nombre de dpassements (mesurs) avant la quarantaine,
+	 *   0 pour la dsactiver.
+	 */
+	public void setQuarantine(int offenses) {
+		setQuarantine(offenses, new SerialExecutor(VirtualThreads.executor()));
+	}
+
+	/**
+	 * Active la quarantaine.
+	 *
+	 * @param offenses Nombre de dpassements (mesurs) avant la quarantaine,
+	 *   0 pour la dsactiver.
+	 * @param executor L'excuteur des listeners en quarantaine.
+	 */
+	public void setQuarantine(int offenses, Executor executor) {
+		setQuarantine(offenses, executor, DEFAULT_QUARANTINE_CAPACITY);
+	}
+
+	/**
+	 * Active la quarantaine, avec une file d'attente borne.
+	 *
+	 * @param offenses Nombre de dpassements (mesurs) avant la quarantaine,
+	 *   0 pour la dsactiver.
+	 * @param executor L'excuteur des listeners en quarantaine.
+	 * @param capacity Le nombre maximum de notifications en attente sur
+	 *   l'excuteur. Les suivantes sont abandonnes.
+	 */
+	public void setQuarantine(int offenses, Executor executor, int capacity) {
+		if (offenses < 0) {
+			throw new IllegalArgumentException("offenses must be positive");
+		}
+		if (executor == null) {
+			throw new NullPointerException("executor is null");
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+		_quarantineExecutor = executor;
+		_quarantineCapacity = capacity;
+		_quarantineAfter = offenses;
+	}
+
+	/**
+	 * Renvoie le nombre de notifications en quarantaine abandonnes parce que
+	 * la file d'attente tait pleine.
+	 */
+	public long getDropped() {
+		return _dropped.get();
+	}
+
+	/**
+	 * Indique si un listener est en quarantaine.
+	 */
+	public boolean isQuarantined(Object listener) {
+		return !_quarantined.isEmpty() && _quarantined.contains(listener);
+	}
+
+	/**
+	 * Sort un listener de quarantaine, et remet  zro ses dpassements.
+	 */
+	public void release(Object listener) {
+		_quarantined.remove(listener);
+		_offenses.remove(listener);
+	}
+
+	/**
+	 * Oublie un listener dconnect.
+	 */
+	void forget(Object listener) {
+		release(listener);
+		_budgets.remove(listener);
+	}
+
+	/**
+	 * Indique si le watchdog a quelque chose  oublier sur ce listener.
+	 */
+	boolean tracks(Object listener) {
+		return _budgets.containsKey(listener) || _offenses.containsKey(listener) || _quarantined.contains(listener);
+	}
+	
+	/**
+	 * Tire au sort si l'appel en cours doit tre mesur.
+	 */
+	boolean sample() {
+		int sampling = _sampling;
+		return sampling == 1 || ThreadLocalRandom.current().nextInt(sampling) == 0;
+	}
+
+	/**
+	 * Compare la dure d'une notification mesure au budget du listener.
+	 */
+	void check(Object event, Object listener, long nanos) {
+
+		// Dans le budget
+		Long own = _budgets.isEmpty() ? null : _budgets.get(listener);
+		long budget = own != null ? own : _budget;
+		if (nanos <= budget) {
+			return;
+		}
+
+		// Rcidive : quarantaine
+		boolean quarantined = false;
+		if (_quarantineAfter > 0) {
+			AtomicInteger offenses = _offenses.get(listener);
+			if (offenses == null) {
+				AtomicInteger created = new AtomicInteger();
+				offenses = _offenses.putIfAbsent(listener, created);
+				if (offenses == null) {
+					offenses = created;
+				}
+			}
+			if (offenses.incrementAndGet() >= _quarantineAfter) {
+				quarantined = _quarantined.add(listener);
+			}
+		}
+
+		// Signalement : une erreur du handler ne doit pas tre impute au listener
+		try {
+			_handler.onSlowListener(event, listener, nanos, budget, quarantined);
+		}
+		catch (RuntimeException ex) {
+			EventDispatcher.LOGGER.log(Level.SEVERE, "Exception in slow listener handler", ex);
+		}
+	}
+
+	/**
+	 * Lance la notification d'un listener en quarantaine, ou l'abandonne si
+	 * trop de notifications sont dj en attente : un listener bloqu ne doit
+	 * pas faire grossir la file sans limite.
+	 */
+	void execute(final Runnable task) {
+		// File pleine : abandon
+		if (_pending.incrementAndGet() > _quarantineCapacity) {
+			_pending.decrementAndGet();
+			_dropped.incrementAndGet();
+			if (EventDispatcher.LOGGER.isLoggable(Level.FINE)) {
+				EventDispatcher.LOGGER.log(Level.FINE, "Quarantine queue full, notification dropped");
+			}
+			return;
+		}
+		// La place est libre  la fin de la notification
+		try {
+			_quarantineExecutor.execute(new Runnable() {
+				public void run() {
+					try {
+						task.run();
+					}
+					finally {
+						_pending.decrementAndGet();
+					}
+				}
+			});
+		}
+		catch (RuntimeException ex) {
+			_pending.decrementAndGet();
+			throw ex;
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+package designpattern.observer.dispatcher;
+
+import designpattern.observer.source.EventSource;
+import designpattern.observer.source.IEventListener;
+import designpattern.observer.trace.Trace;
+
+/**
+ * Vrifie que trigger(event, valeur) garde le type encapsul de la valeur :
+ * un char, un short ou un float ne doivent pas devenir un Integer ou un
+ * Double  cause des trigger typs. Un tableau d'arguments null doit arriver
+ * tel quel aux listeners.
+ *
+ * Lve une AssertionError en cas d'chec.
+ */
+public class OverloadTest {
+
+	public static interface ValueListener extends IEventListener {
+		public void onValue(Object value);
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	public static void main(String[] args) {
+
+		final Object[] received = new Object[1];
+
+		// Avec le dispatcher
+		EventDispatcher<String> dispatcher = new EventDispatcher<String>();
+		dispatcher.bind("value", new IListener<String>() {
+			public boolean notifyEvent(String event, Object... args) {
+				received[0] = args != null ? args[0] : null;
+				return true;
+			}
+		});
+
+		char c = 'x';
+		short s = 3;
+		float f = 1.5f;
+
+		dispatcher.trigger("value", c);
+		check(received[0] instanceof Character, "dispatcher char : " + received[0].getClass());
+		dispatcher.trigger("value", s);
+		check(received[0] instanceof Short, "dispatcher short : " + received[0].getClass());
+		dispatcher.trigger("value", f);
+		check(received[0] instanceof Float, "dispatcher float : " + received[0].getClass());
+
+		// Avec la source
+		EventSource<ValueListener> source = new EventSource<>(ValueListener.class);
+		source.bind(new ValueListener() {
+			public void onValue(Object value) {
+				received[0] = value;
+			}
+		});
+
+		source.trigger("onValue", c);
+		check(received[0] instanceof Character, "source char : " + received[0].getClass());
+		source.trigger("onValue", s);
+		check(received[0] instanceof Short, "source short : " + received[0].getClass());
+		source.trigger("onValue", f);
+		check(received[0] instanceof Float, "source float : " + received[0].getClass());
+
+		// Les trigger typs restent disponibles sous leur propre nom
+		dispatcher.triggerInt("value", c);
+		check(received[0] instanceof Integer, "triggerInt : " + received[0].getClass());
+
+		// Tableau null : transmis tel quel, y compris quand la trace, une
+		// redirection ou un listener typ ont besoin des arguments
+		final boolean[] nulls = new boolean[4];
+		EventDispatcher<String> target = new EventDispatcher<String>();
+		target.bind("empty", new IListener<String>() {
+			public boolean notifyEvent(String event, Object... args) {
+				nulls[0] = args == null;
+				return true;
+			}
+		});
+		dispatcher.bind("value", new ITypedListener.Args0<String>() {
+			public boolean notifyEvent(String event) {
+				nulls[1] = true;
+				return true;
+			}
+		});
+		dispatcher.redirect(target);
+		Trace.enable((kind, from, event, to, values, value) -> { });
+		try {
+			check(dispatcher.trigger("value", (Object[]) null), "dispatcher null varargs interrompu");
+			check(received[0] == null, "dispatcher null varargs : " + received[0]);
+			check(nulls[1], "dispatcher null varargs : listener typ non notifi");
+			check(dispatcher.trigger("empty", (Object[]) null), "redirect null varargs interrompu");
+			check(nulls[0], "redirect null varargs : tableau non null");
+		}
+		finally {
+			Trace.disable();
+		}
+
+		EventSource<ValueListener> empty = new EventSource<>(ValueListener.class);
+		empty.bind("onValue", new ITypedListener.Args0<String>() {
+			public boolean notifyEvent(String event) {
+				nulls[2] = true;
+				return true;
+			}
+		});
+		empty.bind("onValue", new IListener<String>() {
+			public boolean notifyEvent(String event, Object... args) {
+				nulls[3] = args == null;
+				return true;
+			}
+		});
+		check(empty.dispatch("onValue", (Object[]) null), "source null varargs interrompu");
+		check(nulls[2], "source null varargs : listener typ non notifi");
+		check(nulls[3], "source null varargs : tableau non null");
+
+		System.out.println("OK : overloads");
+
+	}
+
+}
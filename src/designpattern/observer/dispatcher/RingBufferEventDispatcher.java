@@ -0,0 +1,494 @@
+package designpattern.observer.dispatcher;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Un EventDispatcher qui dcouple les producteurs des listeners par un buffer
+ * circulaire prallou, dans le style du Disruptor LMAX.
+ *
+ * Un trigger() rserve un emplacement du buffer, y recopie l'event et ses
+ * arguments, puis le publie : il rend la main immdiatement. Un thread
+ * consommateur ddi lit les emplacements dans l'ordre de publication et
+ * notifie les listeners avec les mmes rgles que l'EventDispatcher
+ * (priorits, arrt de propagation, exceptions, redirection).
+ *
+ * Le bind() et l'unbind() sont ceux de l'EventDispatcher : les objets qui
+ * exposent un IObservable peuvent donc passer  ce dispatcher sans changer
+ * leur code. Attention toutefois, comme la propagation est asynchrone, le
+ * boolean renvoy par trigger() indique seulement que l'event a t publi.
+ *
+ * Contrairement au Disruptor, il n'y a qu'un seul consommateur : tous les
+ * listeners sont notifis dans ce thread, l'un aprs l'autre, et un listener
+ * lent retarde donc tous les events qui suivent. Un trigger() fait par un
+ * listener, depuis ce thread, est propag immdiatement sans passer par le
+ * buffer : attendre une place que lui seul peut librer le bloquerait.
+ *
+ * <E> Le type d'event
+ */
+public class RingBufferEventDispatcher<E> extends EventDispatcher<E> {
+
+	/**
+	 * Le nombre de producteurs, qui dtermine la faon de rserver les emplacements.
+	 */
+	public static enum ProducerType {
+		/**
+		 * Un seul thread appelle trigger() : la rservation se fait sans CAS.
+		 */
+		SINGLE,
+		/**
+		 * Plusieurs threads peuvent appeler trigger() en mme temps.
+		 */
+		MULTI
+	}
+
+	/**
+	 * La faon dont le consommateur attend les events.
+	 */
+	public static enum WaitStrategy {
+		/**
+		 * Boucle active : latence minimale, mais un coeur est occup en permanence.
+		 */
+		BUSY_SPIN,
+		/**
+		 * Boucle qui cde la main aux autres threads.
+		 */
+		YIELDING,
+		/**
+		 * Endort le thread quelques microsecondes : consomme peu de CPU.
+		 */
+		PARKING;
+
+		void idle() {
+			switch (this) {
+			case BUSY_SPIN:
+				break;
+			case YIELDING:
+				Thread.yield();
+				break;
+			case PARKING:
+				LockSupport.parkNanos(1000L);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Un emplacement du buffer. Les emplacements sont rutiliss.
+	 */
+	private static final class Slot<E> {
+		E event;
+		IEventDispatcher<E> source;
+		IListener<E> listenerFilter;
+		Object[] args;
+		int kind;
+		Object a, b, c, d;
+		long l;
+		double v;
+		List<Object[]> batch;
+		BatchMode batchMode;
+	}
+
+	/**
+	 * Le buffer circulaire.
+	 */
+	private final Slot<E>[] _slots;
+
+	/**
+	 * Masque pour calculer l'index d'une squence (taille - 1).
+	 */
+	private final int _mask;
+
+	/**
+	 * La rservation et la publication des emplacements.
+	 */
+	private final Sequencer _sequencer;
+
+	/**
+	 * La dernire squence traite par le consommateur. Les producteurs ne
+	 * peuvent pas rserver un emplacement qui n'a pas encore t lu.
+	 */
+	private final AtomicLong _consumed = new AtomicLong(-1);
+
+	/**
+	 * La stratgie d'attente du consommateur.
+	 */
+	private final WaitStrategy _waitStrategy;
+
+	/**
+	 * Le thread consommateur.
+	 */
+	private final Thread _consumer;
+
+	/**
+	 * Passe  FALSE au dispose().
+	 */
+	private volatile boolean _running = true;
+
+	/**
+	 * Constructeur par dfaut : 1024 emplacements, plusieurs producteurs.
+	 */
+	public RingBufferEventDispatcher() {
+		this(null, 1024, ProducerType.MULTI, WaitStrategy.YIELDING);
+	}
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param sender L'objet qui emet les vents rellement (peut tre NULL)
+	 * @param bufferSize Le nombre d'emplacements, une puissance de 2
+	 * @param producerType Un ou plusieurs threads producteurs
+	 * @param waitStrategy La stratgie d'attente du consommateur
+	 */
+	public RingBufferEventDispatcher(IObservable<E> sender, int bufferSize, ProducerType producerType, WaitStrategy waitStrategy) {
+		super(sender);
+		// Check arguments
+		if (producerType == null || waitStrategy == null) {
+			throw new NullPointerException();
+		}
+		if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+			throw new IllegalArgumentException("bufferSize must be a power of 2");
+		}
+		// Prallocation des emplacements
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		Slot<E>[] slots = new Slot[bufferSize];
+		for (int i = 0; i < bufferSize; i++) {
+			slots[i] = new Slot<E>();
+		}
+		_slots = slots;
+		_mask = bufferSize - 1;
+		_sequencer = producerType == ProducerType.SINGLE
+				? new SingleProducerSequencer(bufferSize, _consumed)
+				: new MultiProducerSequencer(bufferSize, _consumed);
+		_waitStrategy = waitStrategy;
+		// Lancement du consommateur
+		_consumer = new Thread(new Runnable() {
+			public void run() {
+				consume();
+			}
+		}, "RingBufferEventDispatcher");
+		_consumer.setDaemon(true);
+		_consumer.start();
+	}
+
+	/**
+	 * Publie l'event dans le buffer. La propagation aux listeners se fera dans
+	 * le thread consommateur.
+	 *
+	 * @return TRUE, l'event a t publi.
+	 */
+	@Override
+	protected boolean trigger(E event, IEventDispatcher<E> source, IListener<E> listenerFilter, Object... args) {
+		// Vrification des arguments
+		if (event == null) {
+			throw new NullPointerException();
+		}
+		if (!_running) {
+			throw new IllegalStateException("dispatcher is disposed");
+		}
+		// Depuis un listener : propagation immdiate
+		if (Thread.currentThread() == _consumer) {
+			return super.trigger(event, source, listenerFilter, args);
+		}
+		// Rservation d'un emplacement
+		long sequence = _sequencer.next();
+		// Remplissage
+		Slot<E> slot = _slots[(int) sequence & _mask];
+		slot.event = event;
+		slot.source = source;
+		slot.listenerFilter = listenerFilter;
+		slot.args = args;
+		slot.kind = TypedDispatch.VARARGS;
+		// Publication
+		_sequencer.publish(sequence);
+		return true;
+	}
+	
+	/**
+	 * Publie l'event  nombre d'arguments fixe dans le buffer, sans allouer
+	 * de tableau : les arguments sont recopis  plat dans l'emplacement.
+	 * 
+	 * @return TRUE, l'event a t publi.
+	 */
+	@Override
+	protected boolean triggerTyped(E event, int kind, Object a, Object b, Object c, Object d, long l, double v) {
+		// Vrification des arguments
+		if (event == null) {
+			throw new NullPointerException();
+		}
+		if (!_running) {
+			throw new IllegalStateException("dispatcher is disposed");
+		}
+		// Depuis un listener : propagation immdiate
+		if (Thread.currentThread() == _consumer) {
+			return super.triggerTyped(event, kind, a, b, c, d, l, v);
+		}
+		// Rservation d'un emplacement
+		long sequence = _sequencer.next();
+		// Remplissage
+		Slot<E> slot = _slots[(int) sequence & _mask];
+		slot.event = event;
+		slot.source = this;
+		slot.listenerFilter = null;
+		slot.args = null;
+		slot.kind = kind;
+		slot.a = a;
+		slot.b = b;
+		slot.c = c;
+		slot.d = d;
+		slot.l = l;
+		slot.v = v;
+		// Publication
+		_sequencer.publish(sequence);
+		return true;
+	}
+
+	/**
+	 * Publie tout le lot dans un seul emplacement : il sera propag d'un bloc
+	 * par le thread consommateur. La liste ne doit plus tre modifie par
+	 * l'appelant.
+	 * 
+	 * @return TRUE, le lot a t publi.
+	 */
+	@Override
+	public boolean triggerBatch(E event, List<Object[]> argsBatch, BatchMode mode) {
+		// Vrification des arguments
+		if (event == null || argsBatch == null || mode == null) {
+			throw new NullPointerException();
+		}
+		if (!_running) {
+			throw new IllegalStateException("dispatcher is disposed");
+		}
+		// Depuis un listener : propagation immdiate
+		if (Thread.currentThread() == _consumer) {
+			return super.triggerBatch(event, argsBatch, mode);
+		}
+		// Rservation d'un emplacement
+		long sequence = _sequencer.next();
+		// Remplissage
+		Slot<E> slot = _slots[(int) sequence & _mask];
+		slot.event = event;
+		slot.batch = argsBatch;
+		slot.batchMode = mode;
+		// Publication
+		_sequencer.publish(sequence);
+		return true;
+	}
+
+	/**
+	 * La boucle du thread consommateur.
+	 */
+	private void consume() {
+		long next = _consumed.get() + 1;
+		while (_running) {
+			// Rien de publi
+			if (!_sequencer.isAvailable(next)) {
+				_waitStrategy.idle();
+				continue;
+			}
+			// On traite tous les events disponibles d'un coup
+			do {
+				Slot<E> slot = _slots[(int) next & _mask];
+				try {
+					if (slot.batch != null) {
+						dispatchBatch(slot.event, slot.batch, slot.batchMode);
+					}
+					else {
+						dispatch(slot.event, slot.source, slot.listenerFilter, slot.args,
+								slot.kind, slot.a, slot.b, slot.c, slot.d, slot.l, slot.v);
+					}
+				}
+				catch (Throwable ex) {
+					ex.printStackTrace();
+				}
+				// On libre les rfrences
+				slot.event = null;
+				slot.source = null;
+				slot.listenerFilter = null;
+				slot.args = null;
+				slot.a = null;
+				slot.b = null;
+				slot.c = null;
+				slot.d = null;
+				slot.batch = null;
+				slot.batchMode = null;
+				// L'emplacement peut tre rutilis
+				_consumed.lazySet(next);
+				next++;
+			}
+			while (_running && _sequencer.isAvailable(next));
+		}
+		// Le dispatch en cours est termin : on peut librer les listeners
+		super.dispose();
+	}
+
+	/**
+	 * Arrte le thread consommateur. Les events non encore propags sont perdus,
+	 * et les producteurs qui attendent une place sont rejets.
+	 *
+	 * Attend la fin du dispatch en cours, sauf si elle est appele par un
+	 * listener : les listeners sont alors librs  la fin de ce dispatch.
+	 */
+	@Override
+	public void dispose() {
+		_running = false;
+		_sequencer.halt();
+		_consumer.interrupt();
+		// Depuis un listener : le consommateur terminera tout seul
+		if (Thread.currentThread() == _consumer) {
+			return;
+		}
+		// On attend qu'il ait fini son dispatch
+		boolean interrupted = false;
+		while (_consumer.isAlive()) {
+			try {
+				_consumer.join();
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RingBufferEventDispatcher["
+			+ (_sender == null ? "?" : _sender.getClass().getSimpleName()) + "]";
+	}
+
+	/**
+	 * Rservation et publication des squences.
+	 */
+	private static abstract class Sequencer {
+
+		protected final int _bufferSize;
+
+		/**
+		 * La squence du consommateur,  ne pas dpasser d'un tour.
+		 */
+		protected final AtomicLong _gating;
+
+		/**
+		 * Passe  TRUE au dispose() : plus personne ne libre de place.
+		 */
+		private volatile boolean _halted = false;
+
+		Sequencer(int bufferSize, AtomicLong gating) {
+			_bufferSize = bufferSize;
+			_gating = gating;
+		}
+
+		/**
+		 * Rserve la prochaine squence.
+		 */
+		abstract long next();
+
+		/**
+		 * Publie une squence rserve, qui devient visible du consommateur.
+		 */
+		abstract void publish(long sequence);
+
+		/**
+		 * Indique si la squence a t publie.
+		 */
+		abstract boolean isAvailable(long sequence);
+
+		/**
+		 * Attend que le consommateur ait libr l'emplacement de la squence.
+		 */
+		protected void waitForCapacity(long sequence) {
+			while (sequence - _bufferSize > _gating.get()) {
+				if (_halted) {
+					throw new IllegalStateException("dispatcher is disposed");
+				}
+				LockSupport.parkNanos(1L);
+			}
+		}
+
+		/**
+		 * Rejette les producteurs qui attendent une place.
+		 */
+		void halt() {
+			_halted = true;
+		}
+
+	}
+
+	/**
+	 * Un seul producteur : aucune opration atomique  la rservation.
+	 */
+	private static final class SingleProducerSequencer extends Sequencer {
+
+		private long _next = -1;
+
+		private final AtomicLong _cursor = new AtomicLong(-1);
+
+		SingleProducerSequencer(int bufferSize, AtomicLong gating) {
+			super(bufferSize, gating);
+		}
+
+		@Override
+		long next() {
+			long sequence = ++_next;
+			waitForCapacity(sequence);
+			return sequence;
+		}
+
+		@Override
+		void publish(long sequence) {
+			_cursor.lazySet(sequence);
+		}
+
+		@Override
+		boolean isAvailable(long sequence) {
+			return sequence <= _cursor.get();
+		}
+
+	}
+
+	/**
+	 * Plusieurs producteurs : la rservation se fait par CAS, et chaque
+	 * emplacement note le tour auquel il a t publi.
+	 */
+	private static final class MultiProducerSequencer extends Sequencer {
+
+		private final AtomicLong _claimed = new AtomicLong(-1);
+
+		private final AtomicIntegerArray _available;
+
+		private final int _shift;
+
+		MultiProducerSequencer(int bufferSize, AtomicLong gating) {
+			super(bufferSize, gating);
+			_available = new AtomicIntegerArray(bufferSize);
+			for (int i = 0; i < bufferSize; i++) {
+				_available.set(i, -1);
+			}
+			_shift = Integer.numberOfTrailingZeros(bufferSize);
+		}
+
+		@Override
+		long next() {
+			long sequence = _claimed.incrementAndGet();
+			waitForCapacity(sequence);
+			return sequence;
+		}
+
+		@Override
+		void publish(long sequence) {
+			_available.lazySet((int) sequence & (_bufferSize - 1), (int) (sequence >>> _shift));
+		}
+
+		@Override
+		boolean isAvailable(long sequence) {
+			return _available.get((int) sequence & (_bufferSize - 1)) == (int) (sequence >>> _shift);
+		}
+
+	}
+
+}
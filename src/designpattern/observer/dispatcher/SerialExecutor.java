@@ -0,0 +1,87 @@
+package designpattern.observer.dispatcher;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * Excuteur qui dlgue  un autre excuteur, mais n'excute qu'une tche
+ *  la fois, dans l'ordre d'arrive (FIFO).
+ * 
+ * Permet de garder l'ordre des events d'une source tout en utilisant un
+ * excuteur partag, par exemple celui de VirtualThreads.
+ */
+public class SerialExecutor implements Executor {
+
+	/**
+	 * Les tches en attente.
+	 */
+	private final ArrayDeque<Runnable> _tasks = new ArrayDeque<Runnable>();
+	
+	/**
+	 * L'excuteur rel.
+	 */
+	private final Executor _executor;
+	
+	/**
+	 * La tche en cours, ou NULL.
+	 */
+	private Runnable _active;
+	
+	public SerialExecutor(Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException("executor is null");
+		}
+		_executor = executor;
+	}
+	
+	@Override
+	public void execute(final Runnable task) {
+		Runnable next;
+		synchronized (this) {
+			_tasks.addLast(new Runnable() {
+				public void run() {
+					try {
+						task.run();
+					}
+					finally {
+						scheduleNext();
+					}
+				}
+			});
+			if (_active != null) {
+				return;
+			}
+			next = _active = _tasks.pollFirst();
+		}
+		launch(next);
+	}
+	
+	protected void scheduleNext() {
+		Runnable next;
+		synchronized (this) {
+			if ((next = _active = _tasks.pollFirst()) == null) {
+				return;
+			}
+		}
+		launch(next);
+	}
+	
+	/**
+	 * Confie la tche  l'excuteur rel, hors synchro. S'il la refuse, elle
+	 * est abandonne et la tche suivante pourra dmarrer au prochain execute().
+	 */
+	private void launch(Runnable next) {
+		try {
+			_executor.execute(next);
+		}
+		catch (RuntimeException e) {
+			synchronized (this) {
+				if (_active == next) {
+					_active = null;
+				}
+			}
+			throw e;
+		}
+	}
+	
+}
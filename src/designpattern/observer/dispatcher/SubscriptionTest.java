@@ -0,0 +1,124 @@
+package designpattern.observer.dispatcher;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import designpattern.observer.source.EventSource;
+import designpattern.observer.source.IEventListener;
+
+/**
+ * Vrifie que close() sur une inscription retire exactement celle-ci : le
+ * mme listener inscrit plusieurs fois, ou sur d'autres events, doit rester
+ * notifi, y compris quand close() est appel pendant la propagation.
+ *
+ * Lve une AssertionError en cas d'chec.
+ */
+public class SubscriptionTest {
+
+	public static interface ValueListener extends IEventListener {
+		public void onValue(Object value);
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	public static void main(String[] args) {
+
+		// Avec le dispatcher : deux fois sur "a", une fois sur "b"
+		EventDispatcher<String> dispatcher = new EventDispatcher<String>();
+		final AtomicInteger calls = new AtomicInteger();
+		IListener<String> listener = new IListener<String>() {
+			public boolean notifyEvent(String event, Object... args) {
+				calls.incrementAndGet();
+				return true;
+			}
+		};
+		ISubscription first = dispatcher.subscribe("a", listener);
+		dispatcher.subscribe("a", listener);
+		dispatcher.subscribe("b", listener);
+
+		first.close();
+		calls.set(0);
+		dispatcher.trigger("a");
+		check(calls.get() == 1, "dispatcher close : " + calls.get() + " calls on a");
+		calls.set(0);
+		dispatcher.trigger("b");
+		check(calls.get() == 1, "dispatcher close : " + calls.get() + " calls on b");
+
+		// Un second close() est sans effet
+		first.close();
+		calls.set(0);
+		dispatcher.trigger("a");
+		check(calls.get() == 1, "dispatcher double close : " + calls.get() + " calls on a");
+
+		// close() pendant la propagation : seule cette inscription est retire
+		final ISubscription[] self = new ISubscription[1];
+		final AtomicInteger closing = new AtomicInteger();
+		IListener<String> closer = new IListener<String>() {
+			public boolean notifyEvent(String event, Object... args) {
+				if (closing.incrementAndGet() == 1) {
+					self[0].close();
+				}
+				return true;
+			}
+		};
+		self[0] = dispatcher.subscribe("c", closer);
+		dispatcher.subscribe("c", closer);
+		dispatcher.trigger("c");
+		check(closing.get() == 2, "dispatcher close in notify : " + closing.get() + " calls");
+		closing.set(0);
+		dispatcher.trigger("c");
+		check(closing.get() == 1, "dispatcher close in notify : " + closing.get() + " calls after");
+
+		// bind() reste sans valeur de retour et unbind() retire toujours tout
+		dispatcher.bind("a", listener);
+		check(dispatcher.unbind("a", listener), "dispatcher unbind");
+
+		// Avec la source : le mme listener deux fois
+		EventSource<ValueListener> source = new EventSource<>(ValueListener.class);
+		final AtomicInteger values = new AtomicInteger();
+		ValueListener value = new ValueListener() {
+			public void onValue(Object v) {
+				values.incrementAndGet();
+			}
+		};
+		ISubscription handle = source.subscribe(value);
+		source.subscribe(value);
+
+		handle.close();
+		source.trigger("onValue", "x");
+		check(values.get() == 1, "source close : " + values.get() + " calls");
+		handle.close();
+		values.set(0);
+		source.trigger("onValue", "x");
+		check(values.get() == 1, "source double close : " + values.get() + " calls");
+
+		// close() pendant la propagation
+		EventSource<ValueListener> other = new EventSource<>(ValueListener.class);
+		final ISubscription[] own = new ISubscription[1];
+		final AtomicInteger received = new AtomicInteger();
+		ValueListener once = new ValueListener() {
+			public void onValue(Object v) {
+				if (received.incrementAndGet() == 1) {
+					own[0].close();
+				}
+			}
+		};
+		own[0] = other.subscribe(once);
+		other.subscribe(once);
+		other.trigger("onValue", "x");
+		check(received.get() == 2, "source close in notify : " + received.get() + " calls");
+		received.set(0);
+		other.trigger("onValue", "x");
+		check(received.get() == 1, "source close in notify : " + received.get() + " calls after");
+
+		// bind() reste chanable
+		check(source.bind(value).bind(value) == source, "source bind chaining");
+
+		System.out.println("OK : subscriptions");
+
+	}
+
+}
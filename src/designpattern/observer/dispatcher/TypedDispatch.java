@@ -0,0 +1,176 @@
+package designpattern.observer.dispatcher;
+
+/**
+ * Outils internes pour propager un event  nombre d'arguments fixe vers des
+ * listeners typs (ITypedListener) sans allouer de tableau.
+ * 
+ * Les arguments sont transports " plat" : un type (kind), jusqu' quatre
+ * objets, et une valeur primitive entire (INT, LONG) ou flottante (DOUBLE).
+ * Le tableau Object[] n'est fabriqu, avec toArray(), que si un listener non
+ * typ doit tre notifi.
+ */
+public final class TypedDispatch {
+
+	/**
+	 * Les arguments sont dans un tableau Object[]
+	 */
+	public static final int VARARGS = -1;
+	
+	/**
+	 * Aucun argument
+	 */
+	public static final int ARGS0 = 0;
+	
+	/**
+	 * Arguments objets : a
+	 */
+	public static final int ARGS1 = 1;
+	
+	/**
+	 * Arguments objets : a, b
+	 */
+	public static final int ARGS2 = 2;
+	
+	/**
+	 * Arguments objets : a, b, c
+	 */
+	public static final int ARGS3 = 3;
+	
+	/**
+	 * Arguments objets : a, b, c, d
+	 */
+	public static final int ARGS4 = 4;
+	
+	/**
+	 * Un int, transport dans la valeur entire
+	 */
+	public static final int INT = 5;
+	
+	/**
+	 * Un long, transport dans la valeur entire
+	 */
+	public static final int LONG = 6;
+	
+	/**
+	 * Un double, transport dans la valeur flottante
+	 */
+	public static final int DOUBLE = 7;
+	
+	private static final Object[] NO_ARGS = new Object[0];
+	
+	private TypedDispatch() {
+	}
+	
+	/**
+	 * Fabrique le tableau d'arguments pour les listeners non typs.
+	 */
+	public static Object[] toArray(int kind, Object a, Object b, Object c, Object d, long l, double v) {
+		switch (kind) {
+		case ARGS0:
+			return NO_ARGS;
+		case ARGS1:
+			return new Object[] { a };
+		case ARGS2:
+			return new Object[] { a, b };
+		case ARGS3:
+			return new Object[] { a, b, c };
+		case ARGS4:
+			return new Object[] { a, b, c, d };
+		case INT:
+			return new Object[] { (int) l };
+		case LONG:
+			return new Object[] { l };
+		case DOUBLE:
+			return new Object[] { v };
+		default:
+			throw new IllegalArgumentException("kind " + kind);
+		}
+	}
+	
+	/**
+	 * Notifie un listener typ  partir d'un tableau d'arguments.
+	 */
+	public static <E> boolean notify(ITypedListener<E> listener, E event, Object[] args) {
+		int length = args == null ? 0 : args.length;
+		switch (length) {
+		case 0:
+			return notify(listener, event, ARGS0, null, null, null, null, 0, 0);
+		case 1:
+			return notify(listener, event, ARGS1, args[0], null, null, null, 0, 0);
+		case 2:
+			return notify(listener, event, ARGS2, args[0], args[1], null, null, 0, 0);
+		case 3:
+			return notify(listener, event, ARGS3, args[0], args[1], args[2], null, 0, 0);
+		default:
+			return notify(listener, event, ARGS4, args[0], args[1], args[2], args[3], 0, 0);
+		}
+	}
+	
+	/**
+	 * Notifie un listener typ. Les arguments en trop sont ignors, les valeurs
+	 * primitives sont converties vers le type du listener, et ne sont boxes que
+	 * si le listener attend un objet.
+	 * 
+	 * @throws IllegalArgumentException Si l'event n'a pas assez d'arguments pour le listener.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <E> boolean notify(ITypedListener<E> listener, E event, int kind, Object a, Object b, Object c, Object d, long l, double v) {
+		
+		// Listeners primitifs
+		if (listener instanceof ITypedListener.OfDouble) {
+			double value = kind == DOUBLE ? v : kind == INT || kind == LONG ? (double) l : number(kind, a).doubleValue();
+			return ((ITypedListener.OfDouble<E>) listener).notifyEvent(event, value);
+		}
+		if (listener instanceof ITypedListener.OfLong) {
+			long value = kind == INT || kind == LONG ? l : kind == DOUBLE ? (long) v : number(kind, a).longValue();
+			return ((ITypedListener.OfLong<E>) listener).notifyEvent(event, value);
+		}
+		if (listener instanceof ITypedListener.OfInt) {
+			int value = kind == INT || kind == LONG ? (int) l : kind == DOUBLE ? (int) v : number(kind, a).intValue();
+			return ((ITypedListener.OfInt<E>) listener).notifyEvent(event, value);
+		}
+		
+		// Les valeurs primitives sont passes comme premier argument objet
+		if (kind == INT || kind == LONG || kind == DOUBLE) {
+			a = kind == INT ? (Object) (int) l : kind == LONG ? (Object) l : (Object) v;
+			kind = ARGS1;
+		}
+		
+		// Listeners objets
+		if (listener instanceof ITypedListener.Args0) {
+			return ((ITypedListener.Args0<E>) listener).notifyEvent(event);
+		}
+		if (listener instanceof ITypedListener.Args1) {
+			check(kind, 1);
+			return ((ITypedListener.Args1) listener).notifyEvent(event, a);
+		}
+		if (listener instanceof ITypedListener.Args2) {
+			check(kind, 2);
+			return ((ITypedListener.Args2) listener).notifyEvent(event, a, b);
+		}
+		if (listener instanceof ITypedListener.Args3) {
+			check(kind, 3);
+			return ((ITypedListener.Args3) listener).notifyEvent(event, a, b, c);
+		}
+		if (listener instanceof ITypedListener.Args4) {
+			check(kind, 4);
+			return ((ITypedListener.Args4) listener).notifyEvent(event, a, b, c, d);
+		}
+		
+		throw new IllegalArgumentException("Unsupported listener " + listener.getClass().getName());
+	}
+	
+	private static void check(int kind, int arity) {
+		if (kind < arity) {
+			throw new IllegalArgumentException("Event has " + kind + " argument(s), listener expects " + arity);
+		}
+	}
+	
+	private static Number number(int kind, Object a) {
+		if (kind >= ARGS1 && a instanceof Number) {
+			return (Number) a;
+		}
+		throw new IllegalArgumentException("Event has no numeric argument");
+	}
+	
+}
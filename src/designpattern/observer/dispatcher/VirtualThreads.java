@@ -0,0 +1,65 @@
+package designpattern.observer.dispatcher;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Fournit un excuteur qui lance chaque tche dans son propre thread virtuel,
+ * pour les listeners qui bloquent (I/O...).
+ * 
+ * Le projet reste compil en Java 8 : les threads virtuels sont donc obtenus
+ * par rflexion quand la JVM les supporte (Java 21+). Sinon, on se rabat sur
+ * un pool de threads daemon sans limite.
+ */
+public final class VirtualThreads {
+
+	/**
+	 * L'excuteur partag.
+	 */
+	private static final Executor EXECUTOR;
+	
+	/**
+	 * Indique si l'excuteur utilise rellement des threads virtuels.
+	 */
+	private static final boolean SUPPORTED;
+	
+	static {
+		Executor executor = null;
+		try {
+			Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			executor = (Executor) m.invoke(null);
+		}
+		catch (Exception ex) {
+			// JVM sans threads virtuels
+		}
+		SUPPORTED = executor != null;
+		EXECUTOR = executor != null ? executor : Executors.newCachedThreadPool(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "EventDispatcher-worker");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+	
+	private VirtualThreads() {
+	}
+	
+	/**
+	 * Renvoie l'excuteur partag : un thread (virtuel si possible) par tche.
+	 */
+	public static Executor executor() {
+		return EXECUTOR;
+	}
+	
+	/**
+	 * Indique si la JVM supporte les threads virtuels.
+	 */
+	public static boolean isSupported() {
+		return SUPPORTED;
+	}
+	
+}
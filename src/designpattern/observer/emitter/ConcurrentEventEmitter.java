@@ -0,0 +1,167 @@
+package designpattern.observer.emitter;
+
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import designpattern.observer.dispatcher.ISubscription;
+
+/**
+ * Un EventEmitter utilisable depuis plusieurs threads.
+ *
+ * Les listeners sont conservs dans un tableau immuable : add() et remove()
+ * en fabriquent une copie et la remplacent par CAS. Un notify() travaille
+ * donc sur un instantan, sans verrou ni allocation, et un listener peut
+ * s'ajouter ou se retirer pendant la propagation (la modification prend
+ * effet au notify() suivant).
+ *
+ * L'inscription renvoye par add() retire le listener qu'elle a inscrit,
+ * compar par identit : elle ne confond pas deux listeners gaux, et ne
+ * cote que la copie du tableau.
+ */
+public class ConcurrentEventEmitter<E> implements IEventEmitter<E> {
+
+	@SuppressWarnings("rawtypes")
+	private static final IListener[] EMPTY = new IListener[0];
+
+	@SuppressWarnings("unchecked")
+	private final AtomicReference<IListener<E>[]> _listeners = new AtomicReference<IListener<E>[]>(EMPTY);
+	
+	/**
+	 * Les listeners faibles dont l'objet a t libr, en attente de retrait.
+	 * NULL tant que addWeak() n'a pas servi.
+	 */
+	private volatile ReferenceQueue<Object> _cleared = null;
+
+	@Override
+	public void notify(E event) {
+		// Listeners librs
+		ReferenceQueue<Object> cleared = _cleared;
+		if (cleared != null) {
+			WeakListener.prune(cleared, this);
+		}
+		IListener<E>[] listeners = _listeners.get();
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].notify(event);
+		}
+	}
+
+	@Override
+	public ISubscription add(final IListener<E> listener) {
+		IListener<E>[] current, next;
+		do {
+			current = _listeners.get();
+			next = Arrays.copyOf(current, current.length + 1);
+			next[current.length] = listener;
+		}
+		while (!_listeners.compareAndSet(current, next));
+		return new ISubscription() {
+			@Override
+			public void close() {
+				remove(listener, true);
+			}
+		};
+	}
+
+	/**
+	 * Inscrit un listener sans le retenir : l'metteur ne garde qu'une
+	 * rfrence faible, le listener peut donc tre libr par le GC sans
+	 * avoir t retir. Il est alors retir lors d'un notify() suivant.
+	 * 
+	 * Le listener doit donc tre retenu ailleurs, par la vue qui l'a cr
+	 * par exemple.
+	 */
+	public ISubscription addWeak(IListener<E> listener) {
+		return add(WeakListener.of(listener, cleared()));
+	}
+	
+	/**
+	 * Inscrit un appel  un objet, sans retenir l'objet. Voir Events.bindWeak().
+	 */
+	ISubscription addWeak(Object target, WeakListener.Call<E> call) {
+		return add(new WeakListener<E>(target, call, cleared()));
+	}
+	
+	private synchronized ReferenceQueue<Object> cleared() {
+		if (_cleared == null) {
+			_cleared = new ReferenceQueue<Object>();
+		}
+		return _cleared;
+	}
+
+	@Override
+	public void remove(IListener<E> listener) {
+		remove(listener, false);
+	}
+
+	/**
+	 * Retire un listener.
+	 *
+	 * @param identity TRUE pour ne retirer que cette instance (inscription),
+	 *   FALSE pour comparer avec equals() et retrouver les listeners faibles.
+	 */
+	private void remove(IListener<E> listener, boolean identity) {
+		IListener<E>[] current, next;
+		do {
+			current = _listeners.get();
+			// On cherche le listener
+			int index = -1;
+			for (int i = 0; i < current.length; i++) {
+				if (identity ? current[i] == listener : (current[i].equals(listener)
+						|| current[i] instanceof WeakListener && ((WeakListener<?>) current[i]).targets(listener))) {
+					index = i;
+					break;
+				}
+			}
+			// Absent : rien  faire
+			if (index < 0) {
+				return;
+			}
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			IListener<E>[] shorter = current.length == 1 ? EMPTY : new IListener[current.length - 1];
+			next = shorter;
+			System.arraycopy(current, 0, next, 0, index);
+			System.arraycopy(current, index + 1, next, index, next.length - index);
+		}
+		while (!_listeners.compareAndSet(current, next));
+	}
+
+	@SuppressWarnings("unchecked")
+	public void dispose() {
+		_listeners.set(EMPTY);
+	}
+
+	/**
+	 * Renvoie un instantan non modifiable des listeners.
+	 */
+	@Override
+	public Collection<IListener<E>> getListeners() {
+		return Collections.unmodifiableList(Arrays.asList(_listeners.get()));
+	}
+
+	@Override
+	public boolean hasListeners() {
+		return _listeners.get().length > 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends IListener<E>> Collection<T> getListeners(Class<T> t) {
+		List<T> list = new ArrayList<>();
+		for (IListener<E> listener : _listeners.get()) {
+			if (t.isInstance(listener))
+				list.add((T) listener);
+		}
+		return list;
+	}
+
+	@Override
+	public int getListenersCount() {
+		return _listeners.get().length;
+	}
+
+}
@@ -0,0 +1,244 @@
+package designpattern.observer.emitter;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+import designpattern.observer.dispatcher.ISubscription;
+
+/**
+ * Un metteur qui fusionne les events trop rapprochs.
+ *
+ * notify() ne propage pas l'event tout de suite : il le range dans une table,
+ * sous une cl calcule  partir de l'event, et demande  l'excuteur de faire
+ * la propagation. Si un autre event de mme cl arrive avant que le premier ait
+ * t propag, les deux sont fusionns (par dfaut, seul le plus rcent est
+ * gard). Les listeners ne reoivent donc jamais plus d'un event par cl et par
+ * passage de l'excuteur, quel que soit le rythme de la source.
+ *
+ * Par exemple, pour une IHM Swing :
+ *
+ * new ConflatingEventEmitter&lt;Double&gt;(SwingUtilities::invokeLater)
+ *
+ * Les fonctions de cl et de fusion sont appeles hors du verrou de l'metteur :
+ * une fusion lente ne retarde que les events de mme cl.
+ *
+ * Les listeners sont grs comme dans ConcurrentEventEmitter.
+ */
+public class ConflatingEventEmitter<E> implements IEventEmitter<E> {
+
+	/**
+	 * Les listeners.
+	 */
+	private final ConcurrentEventEmitter<E> _listeners = new ConcurrentEventEmitter<E>();
+
+	/**
+	 * L'excuteur qui fait la propagation.
+	 */
+	private final Executor _executor;
+
+	/**
+	 * Calcule la cl de fusion d'un event.
+	 */
+	private final Function<? super E, ?> _key;
+
+	/**
+	 * Fusionne l'event en attente (premier argument) avec le nouveau.
+	 */
+	private final BinaryOperator<E> _merge;
+
+	/**
+	 * Les events en attente de propagation, par cl, dans l'ordre d'arrive
+	 * de la premire valeur de chaque cl.
+	 */
+	private Map<Object, Slot<E>> _pending = new LinkedHashMap<Object, Slot<E>>();
+
+	/**
+	 * Indique qu'une propagation a t confie  l'excuteur.
+	 */
+	private boolean _scheduled = false;
+
+	/**
+	 * La tche de propagation.
+	 */
+	private final Runnable _drain = new Runnable() {
+		public void run() {
+			drain();
+		}
+	};
+
+	/**
+	 * Constructeur : une seule cl, seul le dernier event est propag.
+	 *
+	 * @param executor L'excuteur qui fait la propagation.
+	 */
+	public ConflatingEventEmitter(Executor executor) {
+		this(executor, (event) -> ConflatingEventEmitter.class, (previous, event) -> event);
+	}
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param executor L'excuteur qui fait la propagation.
+	 * @param key Calcule la cl de fusion d'un event.
+	 * @param merge Fusionne l'event en attente avec le nouvel event de mme cl.
+	 */
+	public ConflatingEventEmitter(Executor executor, Function<? super E, ?> key, BinaryOperator<E> merge) {
+		if (executor == null || key == null || merge == null) {
+			throw new NullPointerException();
+		}
+		_executor = executor;
+		_key = key;
+		_merge = merge;
+	}
+
+	@Override
+	public void notify(E event) {
+		Object key = _key.apply(event);
+		while (true) {
+			// On cherche l'event en attente de mme cl, ou on range celui-ci
+			Slot<E> slot;
+			synchronized (this) {
+				slot = _pending.get(key);
+				if (slot == null) {
+					_pending.put(key, new Slot<E>(event));
+					// Lancement de la propagation
+					if (_scheduled) {
+						return;
+					}
+					_scheduled = true;
+					break;
+				}
+			}
+			// Fusion avec l'event en attente, hors du verrou de l'metteur
+			synchronized (slot) {
+				if (!slot.closed) {
+					slot.event = _merge.apply(slot.event, event);
+					return;
+				}
+			}
+			// L'event en attente vient d'tre pris par la propagation : on
+			// recommence, il sera rang dans une nouvelle case
+		}
+		try {
+			_executor.execute(_drain);
+		}
+		catch (RuntimeException ex) {
+			synchronized (this) {
+				_scheduled = false;
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Propage les events en attente, jusqu' ce qu'il n'y en ait plus.
+	 */
+	private void drain() {
+		while (true) {
+			// On rcupre les events en attente
+			Map<Object, Slot<E>> events;
+			synchronized (this) {
+				if (_pending.isEmpty()) {
+					_scheduled = false;
+					return;
+				}
+				events = _pending;
+				_pending = new LinkedHashMap<Object, Slot<E>>();
+			}
+			// Propagation
+			for (Slot<E> slot : events.values()) {
+				// La case est ferme : les fusions suivantes iront dans une nouvelle
+				E event;
+				synchronized (slot) {
+					slot.closed = true;
+					event = slot.event;
+				}
+				// Un listener en erreur ne doit pas bloquer les suivants
+				try {
+					_listeners.notify(event);
+				}
+				catch (Throwable t) {
+					Events.LOGGER.log(Level.SEVERE, "Exception on conflated event " + event + " : "
+							+ t.getClass().getCanonicalName() + " - " + t.getMessage(), t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Renvoie le nombre d'events en attente de propagation.
+	 */
+	public synchronized int getPendingCount() {
+		return _pending.size();
+	}
+
+	@Override
+	public ISubscription add(IListener<E> listener) {
+		return _listeners.add(listener);
+	}
+
+	/**
+	 * Inscrit un listener sans le retenir. Voir ConcurrentEventEmitter.addWeak().
+	 */
+	public ISubscription addWeak(IListener<E> listener) {
+		return _listeners.addWeak(listener);
+	}
+	
+	ISubscription addWeak(Object target, WeakListener.Call<E> call) {
+		return _listeners.addWeak(target, call);
+	}
+
+	@Override
+	public void remove(IListener<E> listener) {
+		_listeners.remove(listener);
+	}
+
+	public void dispose() {
+		_listeners.dispose();
+		synchronized (this) {
+			_pending.clear();
+		}
+	}
+
+	@Override
+	public Collection<IListener<E>> getListeners() {
+		return _listeners.getListeners();
+	}
+
+	@Override
+	public <T extends IListener<E>> Collection<T> getListeners(Class<T> t) {
+		return _listeners.getListeners(t);
+	}
+
+	@Override
+	public boolean hasListeners() {
+		return _listeners.hasListeners();
+	}
+
+	@Override
+	public int getListenersCount() {
+		return _listeners.getListenersCount();
+	}
+
+	/**
+	 * La case d'un event en attente. Elle est ferme quand la propagation la
+	 * prend : une fusion ne peut alors plus la modifier.
+	 */
+	private static final class Slot<E> {
+
+		E event;
+
+		boolean closed = false;
+
+		Slot(E event) {
+			this.event = event;
+		}
+
+	}
+
+}
@@ -0,0 +1,147 @@
+package designpattern.observer.emitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import designpattern.observer.dispatcher.ISubscription;
+
+/**
+ * Un metteur spcialis pour les events de type double : notify(double) ne fabrique
+ * aucun Double, ni aucun itrateur, quand les listeners sont des IDoubleListener.
+ * 
+ * Il reste un IEventEmitter&lt;Double&gt;, ce qui permet d'y inscrire des IListener
+ * gnriques (la valeur est alors boxe pour eux seuls) et de le binder avec
+ * Events.bind().
+ */
+public class DoubleEventEmitter implements IEventEmitter<Double> {
+	
+	private static final IDoubleListener[] EMPTY = new IDoubleListener[0];
+	
+	private IDoubleListener[] _listeners = EMPTY;
+
+	/**
+	 * Propage la valeur, sans boxing.
+	 */
+	public void notify(double event) {
+		IDoubleListener[] listeners = _listeners;
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].notify(event);
+		}
+	}
+
+	@Override
+	public void notify(Double event) {
+		notify(event.doubleValue());
+	}
+
+	/**
+	 * Inscrit un listener, notifi sans boxing.
+	 * 
+	 * @return L'inscription, qui retire cette instance du listener.
+	 */
+	public ISubscription add(final IDoubleListener listener) {
+		IDoubleListener[] listeners = Arrays.copyOf(_listeners, _listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+		_listeners = listeners;
+		return new ISubscription() {
+			@Override
+			public void close() {
+				IDoubleListener[] listeners = _listeners;
+				for (int i = 0; i < listeners.length; i++) {
+					if (listeners[i] == listener) {
+						remove(i);
+						return;
+					}
+				}
+			}
+		};
+	}
+
+	@Override
+	public ISubscription add(IListener<Double> listener) {
+		if (listener instanceof IDoubleListener) {
+			return add((IDoubleListener) listener);
+		}
+		// Un listener gnrique est adapt : il recevra la valeur boxe
+		return add(new Boxing(listener));
+	}
+
+	@Override
+	public void remove(IListener<Double> listener) {
+		IDoubleListener[] listeners = _listeners;
+		for (int i = 0; i < listeners.length; i++) {
+			if (unwrap(listeners[i]).equals(listener)) {
+				remove(i);
+				return;
+			}
+		}
+	}
+	
+	private void remove(int index) {
+		IDoubleListener[] listeners = _listeners;
+		IDoubleListener[] copy = new IDoubleListener[listeners.length - 1];
+		System.arraycopy(listeners, 0, copy, 0, index);
+		System.arraycopy(listeners, index + 1, copy, index, copy.length - index);
+		_listeners = copy;
+	}
+	
+	public void dispose() {
+		_listeners = EMPTY;
+	}
+
+	@Override
+	public Collection<IListener<Double>> getListeners() {
+		List<IListener<Double>> list = new ArrayList<>();
+		for (IDoubleListener listener : _listeners) {
+			list.add(unwrap(listener));
+		}
+		return list;
+	}
+
+	@Override
+	public boolean hasListeners() {
+		return _listeners.length > 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends IListener<Double>> Collection<T> getListeners(Class<T> t) {
+		List<T> list = new ArrayList<>();
+		for (IDoubleListener listener : _listeners) {
+			IListener<Double> l = unwrap(listener);
+			if (t.isInstance(l))
+				list.add((T) l);
+		}
+		return list;
+	}
+
+	@Override
+	public int getListenersCount() {
+		return _listeners.length;
+	}
+	
+	private static IListener<Double> unwrap(IDoubleListener listener) {
+		return listener instanceof Boxing ? ((Boxing) listener)._listener : listener;
+	}
+	
+	/**
+	 * Adapte un IListener gnrique.
+	 */
+	private static final class Boxing implements IDoubleListener {
+		
+		private final IListener<Double> _listener;
+		
+		Boxing(IListener<Double> listener) {
+			_listener = listener;
+		}
+		
+		@Override
+		public void notify(double event) {
+			_listener.notify(event);
+		}
+		
+	}
+
+}
@@ -1,56 +1,325 @@
 package designpattern.observer.emitter;
 
+import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import designpattern.observer.dispatcher.ISubscription;
+import designpattern.observer.metrics.Metrics;
+
+/**
+ * L'metteur de base,  utiliser depuis un seul thread.
+ * 
+ * Chaque listener occupe une case, qui est aussi son inscription : un
+ * listener retir laisse un trou, et les trous ne sont supprims que
+ * lorsqu'ils occupent la moiti des cases. Un retrait ne dcale donc rien,
+ * le compactage est rparti sur les retraits qui l'ont prcd.
+ */
 public class EventEmitter<E> implements IEventEmitter<E> {
 	
-	private List<IListener<E>> _listeners = new ArrayList<>();
+	@SuppressWarnings("rawtypes")
+	private static final Slot[] EMPTY = new Slot[0];
+	
+	/**
+	 * Les cases des listeners, dans l'ordre d'inscription. NULL pour un trou.
+	 */
+	@SuppressWarnings("unchecked")
+	private Slot<E>[] _slots = EMPTY;
+	
+	/**
+	 * Nombre de cases utilises dans _slots, trous compris.
+	 */
+	private int _size = 0;
+	
+	/**
+	 * Nombre de trous dans _slots.
+	 */
+	private int _holes = 0;
+	
+	/**
+	 * Profondeur des notify() en cours : on ne compacte pas pendant une
+	 * propagation, un listener pouvant se retirer lui-mme.
+	 */
+	private int _notifying = 0;
+	
+	/**
+	 * Les mtriques de l'metteur, ou NULL (par dfaut) pour ne rien mesurer.
+	 */
+	private Metrics _metrics = null;
+	
+	/**
+	 * Les compteurs de l'metteur dans _metrics.
+	 */
+	private Metrics.EventCounters _counters = null;
+	
+	/**
+	 * Les listeners faibles dont l'objet a t libr, en attente de retrait.
+	 * NULL tant que addWeak() n'a pas servi.
+	 */
+	private ReferenceQueue<Object> _cleared = null;
 
 	@Override
 	public void notify(E event) {
-		_listeners.forEach((listener) -> listener.notify(event));
+		// Listeners librs
+		if (_cleared != null) {
+			WeakListener.prune(_cleared, this);
+		}
+		// Un listener inscrit pendant la propagation ne sera notifi qu'au
+		// notify() suivant, un listener retir ne l'est plus
+		Slot<E>[] slots = _slots;
+		int size = _size;
+		Metrics.EventCounters counters = _counters;
+		_notifying++;
+		try {
+			if (counters == null) {
+				for (int i = 0; i < size; i++) {
+					Slot<E> slot = slots[i];
+					if (slot != null) {
+						slot.listener.notify(event);
+					}
+				}
+				return;
+			}
+			// Propagation mesure
+			long start = System.nanoTime();
+			try {
+				for (int i = 0; i < size; i++) {
+					Slot<E> slot = slots[i];
+					if (slot == null) {
+						continue;
+					}
+					IListener<E> listener = slot.listener;
+					long time = System.nanoTime();
+					try {
+						listener.notify(event);
+					}
+					catch (RuntimeException | Error ex) {
+						counters.fail(listener);
+						throw ex;
+					}
+					finally {
+						counters.listener(listener).record(System.nanoTime() - time);
+					}
+				}
+			}
+			finally {
+				counters.record(System.nanoTime() - start);
+			}
+		}
+		finally {
+			// Les retraits faits pendant la propagation
+			if (--_notifying == 0 && _holes > _size >> 1) {
+				compact();
+			}
+		}
+	}
+	
+	/**
+	 * Active la mesure de la propagation : nombre de propagations et
+	 * d'exceptions, et dures, pour l'metteur et pour chaque listener.
+	 * 
+	 * @param metrics Les mtriques, ou NULL pour ne plus rien mesurer.
+	 * @param name Le nom de l'metteur dans les mtriques (par exemple le nom
+	 *   du champ), qui y joue le rle de l'event.
+	 */
+	public void setMetrics(Metrics metrics, String name) {
+		if (metrics != null && name == null) {
+			throw new NullPointerException("name is null");
+		}
+		_metrics = metrics;
+		_counters = metrics != null ? metrics.event(name) : null;
+	}
+	
+	/**
+	 * Renvoie les mtriques de l'metteur, ou NULL.
+	 */
+	public Metrics getMetrics() {
+		return _metrics;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
-	public void add(IListener<E> listener) {
-		_listeners.add(listener);
+	public ISubscription add(IListener<E> listener) {
+		if (_size == _slots.length) {
+			_slots = Arrays.copyOf(_slots, Math.max(8, _size + (_size >> 1)));
+		}
+		Slot<E> slot = new Slot<E>(this, listener, _size);
+		_slots[_size++] = slot;
+		return slot;
 	}
 
+	/**
+	 * Inscrit un listener sans le retenir : l'metteur ne garde qu'une
+	 * rfrence faible, le listener peut donc tre libr par le GC sans
+	 * avoir t retir. Il est alors retir lors d'un notify() suivant.
+	 * 
+	 * Le listener doit donc tre retenu ailleurs, par la vue qui l'a cr
+	 * par exemple.
+	 */
+	public ISubscription addWeak(IListener<E> listener) {
+		return add(WeakListener.of(listener, cleared()));
+	}
+	
+	/**
+	 * Inscrit un appel  un objet, sans retenir l'objet. Voir Events.bindWeak().
+	 */
+	ISubscription addWeak(Object target, WeakListener.Call<E> call) {
+		return add(new WeakListener<E>(target, call, cleared()));
+	}
+	
+	private ReferenceQueue<Object> cleared() {
+		if (_cleared == null) {
+			_cleared = new ReferenceQueue<Object>();
+		}
+		return _cleared;
+	}
+
+	/**
+	 * Retire le listener, en le recherchant parmi les autres. L'inscription
+	 * renvoye par add() vite cette recherche.
+	 */
+	@SuppressWarnings("unchecked")
 	@Override
 	public void remove(IListener<E> listener) {
-		_listeners.remove(listener);
+		int found = -1;
+		for (int i = 0; i < _size; i++) {
+			Slot<E> slot = _slots[i];
+			if (slot != null && slot.listener.equals(listener)) {
+				found = i;
+				break;
+			}
+		}
+		// Listener inscrit par addWeak()
+		for (int i = 0; found < 0 && i < _size; i++) {
+			Slot<E> slot = _slots[i];
+			if (slot != null && slot.listener instanceof WeakListener && ((WeakListener<E>) slot.listener).targets(listener)) {
+				found = i;
+			}
+		}
+		if (found >= 0) {
+			remove(found);
+		}
+		// Les compteurs ne doivent pas retenir le listener
+		else if (_counters != null) {
+			_counters.forget(listener);
+		}
+	}
+	
+	/**
+	 * Retire la case donne, en y laissant un trou.
+	 */
+	private void remove(int index) {
+		Slot<E> slot = _slots[index];
+		_slots[index] = null;
+		slot.index = -1;
+		_holes++;
+		// Les compteurs ne doivent pas retenir le listener
+		if (_counters != null) {
+			_counters.forget(slot.listener);
+		}
+		if (_notifying == 0 && _holes > _size >> 1) {
+			compact();
+		}
+	}
+	
+	/**
+	 * Supprime les trous, en conservant l'ordre d'inscription.
+	 */
+	private void compact() {
+		int size = 0;
+		for (int i = 0; i < _size; i++) {
+			Slot<E> slot = _slots[i];
+			if (slot != null) {
+				slot.index = size;
+				_slots[size++] = slot;
+			}
+		}
+		Arrays.fill(_slots, size, _size, null);
+		// Le tableau rtrcit quand il est presque vide
+		if (_slots.length > 8 && size < _slots.length >> 2) {
+			_slots = Arrays.copyOf(_slots, Math.max(8, size << 1));
+		}
+		_size = size;
+		_holes = 0;
 	}
 	
 	public void dispose() {
-		_listeners = null;
+		for (int i = 0; i < _size; i++) {
+			if (_slots[i] != null) {
+				_slots[i].index = -1;
+			}
+		}
+		_slots = null;
+		_size = 0;
+		_holes = 0;
 	}
 
 	@Override
 	public Collection<IListener<E>> getListeners() {
-		return _listeners;
+		List<IListener<E>> list = new ArrayList<>(_size - _holes);
+		for (int i = 0; i < _size; i++) {
+			if (_slots[i] != null) {
+				list.add(_slots[i].listener);
+			}
+		}
+		return list;
 	}
 
 	@Override
 	public boolean hasListeners() {
-		return _listeners.size() > 0;
+		return _size > _holes;
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T extends IListener<E>> Collection<T> getListeners(Class<T> t) {
 		List<T> list = new ArrayList<>();
-		for (IListener<E> listener : _listeners) {
-			if (t.isInstance(listener))
-				list.add((T) listener);
+		for (int i = 0; i < _size; i++) {
+			if (_slots[i] != null && t.isInstance(_slots[i].listener))
+				list.add((T) _slots[i].listener);
 		}
 		return list;
 	}
 
 	@Override
 	public int getListenersCount() {
-		return _listeners.size();
+		return _size - _holes;
+	}
+	
+	/**
+	 * La case d'un listener, qui est aussi son inscription.
+	 */
+	private static final class Slot<E> implements ISubscription {
+		
+		private final EventEmitter<E> emitter;
+		
+		final IListener<E> listener;
+		
+		/**
+		 * La position de la case dans l'metteur, -1 une fois retire.
+		 */
+		int index;
+		
+		Slot(EventEmitter<E> emitter, IListener<E> listener, int index) {
+			this.emitter = emitter;
+			this.listener = listener;
+			this.index = index;
+		}
+		
+		@Override
+		public void close() {
+			if (index >= 0) {
+				emitter.remove(index);
+			}
+		}
+		
+		@Override
+		public String toString() {
+			return "Subscription[" + listener + "]";
+		}
+		
 	}
 
 }
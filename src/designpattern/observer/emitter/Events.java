@@ -2,12 +2,14 @@ package designpattern.observer.emitter;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.logging.Logger;
 
 /**
  * Classe utilitaire pour manipuler les vnements, qui propose principalement la possibilit
@@ -15,6 +17,11 @@ import java.util.Map.Entry;
  */
 public class Events {
 
+	/**
+	 * Le logger des metteurs, le mme que celui des dispatchers et des sources.
+	 */
+	public static final Logger LOGGER = Logger.getLogger("Events");
+
 	/**
 	 * Interface pour les gestionnaires d'erreurs.
 	 */
@@ -28,6 +35,119 @@ public class Events {
 		void handleException(Throwable ex, boolean bindingError);
 	}
 	
+	/**
+	 * Une mthode annote du listener, associe au champ metteur de la source.
+	 */
+	private static final class Binding {
+		
+		final Method method;
+		
+		final Field field;
+		
+		Binding(Method method, Field field) {
+			this.method = method;
+			this.field = field;
+		}
+		
+	}
+	
+	/**
+	 * Les plans de binding, par classe de listener puis par classe de source.
+	 */
+	private static final ClassValue<ClassValue<Binding[]>> PLANS = new ClassValue<ClassValue<Binding[]>>() {
+		@Override
+		protected ClassValue<Binding[]> computeValue(final Class<?> listenerType) {
+			return new ClassValue<Binding[]>() {
+				@Override
+				protected Binding[] computeValue(Class<?> sourceType) {
+					return plan(sourceType, listenerType);
+				}
+			};
+		}
+	};
+	
+	/**
+	 * Les binders gnrs  la compilation, par classe de listener. La valeur
+	 * est NULL si la classe n'a pas de binder.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final ClassValue<IEventBinder> BINDERS = new ClassValue<IEventBinder>() {
+		@Override
+		protected IEventBinder computeValue(Class<?> type) {
+			try {
+				Class<?> binder = Class.forName(type.getName() + IEventBinder.SUFFIX, true, type.getClassLoader());
+				return (IEventBinder) binder.getDeclaredConstructor().newInstance();
+			}
+			// Pas de binder : on passera par la rflexion
+			catch (ClassNotFoundException | LinkageError ex) {
+				return null;
+			}
+			catch (ReflectiveOperationException | ClassCastException ex) {
+				System.err.println(String.format("Invalid event binder for %s", type.getName()));
+				ex.printStackTrace();
+				return null;
+			}
+		}
+	};
+	
+	/**
+	 * Les champs de type IEventEmitter, par classe de source.
+	 */
+	private static final ClassValue<Field[]> EMITTER_FIELDS = new ClassValue<Field[]>() {
+		@Override
+		protected Field[] computeValue(Class<?> type) {
+			List<Field> fields = new ArrayList<>();
+			// On parcours les attributs de la classe
+			for (Field field : type.getFields()) {
+				// On vrifie qu'il soit de type IEventEmitter (ou d'une implmentation)
+				if (IEventEmitter.class.isAssignableFrom(field.getType())) {
+					fields.add(field);
+				}
+			}
+			return fields.toArray(new Field[fields.size()]);
+		}
+	};
+	
+	/**
+	 * Calcule le plan de binding des mthodes annotes d'une classe de listener
+	 * sur les metteurs d'une classe de source.
+	 */
+	private static Binding[] plan(Class<?> sourceType, Class<?> listenerType) {
+		List<Binding> plan = new ArrayList<>();
+		
+		// On parcours les mthodes du listener
+		for (Method method : listenerType.getMethods()) {
+			
+			// On vrifie qu'il y ait une annotation de binding
+			BindEvent[] annotations = method.getAnnotationsByType(BindEvent.class);
+			if (annotations.length < 1) continue;
+			
+			// On parcours les noms des vnements dclars dans l'annotation
+			for (String eventName : annotations[0].value()) {
+				
+				// Si aucun nom n'est prcis, on rutilise le nom de la mthode pour
+				// faire l'association. Dans ce cas, la mthode doit avoir un nom
+				// strictement identique  la proprit d'vnement sur la source.
+				if ("".equals(eventName)) eventName = method.getName();
+				
+				// On recupre le champ correspondant sur la source
+				Field field = getEventEmitterField(sourceType, eventName, true);
+				
+				// On n'a pas trouv le champ correspondant  l'event demand. Ce n'est
+				// pas forcment une erreur, car il s'agit peut-tre d'un event sur une
+				// autre source, donc on ne lve pas d'exception.
+				if (field == null) {
+					continue;
+				}
+				
+				plan.add(new Binding(method, field));
+				
+			}
+		}
+		
+		return plan.toArray(new Binding[plan.size()]);
+	}
+	
 	/**
 	 * Aliase de la mthode bind() sans gestionnaire d'erreur.
 	 * 
@@ -53,58 +173,137 @@ public class Events {
 		
 		// Protection de l'ensemble de la mthode, pour viter les exceptions lies  la reflexion
 		try {
+			
+			// Si un binder a t gnr  la compilation, il fait tout le travail
+			IEventBinder binder = BINDERS.get(listener.getClass());
+			if (binder != null) {
+				binder.bind(source, listener, handler);
+				return;
+			}
+			
+			// Le plan de binding est calcul une seule fois par couple de classes
+			for (Binding binding : PLANS.get(listener.getClass()).get(source.getClass())) {
+				
+				// On recupre l'metteur sur la source
+				IEventEmitter emitter = (IEventEmitter) binding.field.get(source);
+				if (emitter == null) {
+					continue;
+				}
+				
+				// Et on inscrit un listener, qui va appeler la mthode
+				// (sans boxing si l'metteur est spcialis pour un type primitif)
+				emitter.add(ListenerWrapper.create(binding.method, listener, handler, emitter));
+				
+			}
+		}
+		
+		// Les erreurs leves durant le binding
+		catch (Throwable ex) {
+			bindingError(source, listener, handler, ex);
+		}
+		
+	}
+	
+	/**
+	 * Aliase de la mthode bindWeak() sans gestionnaire d'erreur.
+	 * 
+	 * @param source L'objet source levant les vnements.
+	 * @param listener Le listener.
+	 */
+	public static void bindWeak(Object source, Object listener) {
+		bindWeak(source, listener, null);
+	}
+	
+	/**
+	 * Comme bind(), mais sans retenir le listener : les metteurs ne gardent
+	 * qu'une rfrence faible, le listener peut donc tre libr par le GC
+	 * sans avoir t dsinscrit par unbind(). Il est alors retir lors d'une
+	 * propagation suivante.
+	 * 
+	 * Les mthodes sont appeles par un MethodHandle (les invokers compils et
+	 * les binders gnrs retiennent le listener). Seuls EventEmitter,
+	 * ConcurrentEventEmitter et ConflatingEventEmitter acceptent les listeners
+	 * faibles : pour les autres metteurs, une erreur de binding est leve.
+	 * 
+	 * @param source L'objet source levant les vnements.
+	 * @param listener Le listener.
+	 * @param handler Le gestionnaire d'erreur.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public static void bindWeak(Object source, Object listener, ErrorHandler handler) {
 		
-			// On parcours les mthodes du listener
-			for (Method method : listener.getClass().getMethods()) {
+		// Protection de l'ensemble de la mthode, pour viter les exceptions lies  la reflexion
+		try {
+			for (Binding binding : PLANS.get(listener.getClass()).get(source.getClass())) {
 				
-				// On vrifie qu'il y ait une annotation de binding
-				BindEvent[] annotations = method.getAnnotationsByType(BindEvent.class);
-				if (annotations.length < 1) continue;
+				// On recupre l'metteur sur la source
+				IEventEmitter emitter = (IEventEmitter) binding.field.get(source);
+				if (emitter == null) {
+					continue;
+				}
 				
-				// On parcours les noms des vnements dclars dans l'annotation
-				for (String eventName : annotations[0].value()) {
-					
-					// Si aucun nom n'est prcis, on rutilise le nom de la mthode pour
-					// faire l'association. Dans ce cas, la mthode doit avoir un nom
-					// strictement identique  la proprit d'vnement sur la source.
-					if ("".equals(eventName)) eventName = method.getName();
-					
-					// On recupre le champ correspondant sur la source
-					IEventEmitter emitter = getEventEmitter(source, eventName, true);
-					
-					// On n'a pas trouv le champ correspondant  l'event demand. Ce n'est
-					// pas forcment une erreur, car il s'agit peut-tre d'un event sur une
-					// autre source, donc on ne lve pas d'exception.
-					if (emitter == null) {
-						continue;
-					}
-					
-					// Et on inscrit un listener, qui va appeler dynamiquement la mthode
-					emitter.add(new ListenerWrapper(method, listener, handler));
-					
+				// Et on inscrit l'appel de la mthode, sans retenir le listener
+				WeakListener.Call call = ListenerWrapper.weakCall(binding.method, handler);
+				if (emitter instanceof EventEmitter) {
+					((EventEmitter) emitter).addWeak(listener, call);
 				}
+				else if (emitter instanceof ConcurrentEventEmitter) {
+					((ConcurrentEventEmitter) emitter).addWeak(listener, call);
+				}
+				else if (emitter instanceof ConflatingEventEmitter) {
+					((ConflatingEventEmitter) emitter).addWeak(listener, call);
+				}
+				else {
+					throw new UnsupportedOperationException(emitter.getClass().getSimpleName() + " does not support weak listeners");
+				}
+				
 			}
 		}
 		
 		// Les erreurs leves durant le binding
 		catch (Throwable ex) {
-			// On confie l'erreur au binding
-			if (handler != null) {
-				handler.handleException(ex, true);
-			}
-			// Sinon on l'affiche en console
-			else {
-				System.err.println(String.format("Unable to bind events of %s on %s", source, listener));
-				ex.printStackTrace();
-			}
+			bindingError(source, listener, handler, ex);
 		}
 		
 	}
 	
+	/**
+	 * Confie une erreur de binding au gestionnaire d'erreur, ou l'affiche
+	 * en console.
+	 */
+	private static void bindingError(Object source, Object listener, ErrorHandler handler, Throwable ex) {
+		// On confie l'erreur au binding
+		if (handler != null) {
+			handler.handleException(ex, true);
+		}
+		// Sinon on l'affiche en console
+		else {
+			System.err.println(String.format("Unable to bind events of %s on %s", source, listener));
+			ex.printStackTrace();
+		}
+	}
+	
 	public static void bind(IEventEmitter<?> emitter, Object listener, ErrorHandler handler) {
 		// TODO
 	}
 	
+	/**
+	 * Inscrit sur l'metteur un invoker compil pour une mthode du listener.
+	 * Utilise par les binders gnrs : le listener reste retirable avec
+	 * unbind(), et les exceptions vont au gestionnaire d'erreur.
+	 * 
+	 * @param emitter L'metteur (peut tre NULL, rien n'est fait).
+	 * @param listener L'objet listener.
+	 * @param invoker L'appel direct  la mthode du listener.
+	 * @param handler Le gestionnaire d'erreur.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public static void bindInvoker(IEventEmitter emitter, Object listener, IListener<?> invoker, ErrorHandler handler) {
+		if (emitter != null) {
+			emitter.add(ListenerWrapper.wrap(invoker, listener, handler));
+		}
+	}
+	
 	/**
 	 * Retire les listeners donns des 
 	 * 
@@ -119,15 +318,15 @@ public class Events {
 		try {
 			
 			// On parcours l'ensemble des metteurs qui ont des listeners
-			getEventEmitters(source).entrySet().stream()
-				.filter((emitter) -> emitter.getValue().hasListeners())
-				.forEach((emitter) -> {
+			for (Field field : EMITTER_FIELDS.get(source.getClass())) {
+				IEventEmitter<?> emitter = (IEventEmitter<?>) field.get(source);
+				if (emitter == null || !emitter.hasListeners()) continue;
 				
 				// On retire les listeners qui on t wrapp, et qui donc ont t inscrit
 				//  l'aide des annotations
 				unbindWrapped(emitter, objects);
 				
-			});
+			}
 			
 		}
 		
@@ -138,15 +337,28 @@ public class Events {
 		
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@SuppressWarnings("rawtypes")
 	protected static void unbindWrapped(Entry<String, IEventEmitter> emitter, List<Object> objects) {
+		unbindWrapped(emitter.getValue(), objects);
+	}
+	
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected static void unbindWrapped(IEventEmitter emitter, List<Object> objects) {
 		// On parcours l'ensemble des listeners sur cet metteur, qui sont de type Wrapper
-		Collection<ListenerWrapper<?>> li = emitter.getValue().getListeners(ListenerWrapper.class);
+		Collection<ListenerWrapper<?>> li = emitter.getListeners(ListenerWrapper.class);
 		for (ListenerWrapper<?> listener : li) {
 			// Ce listener doit tre enlev
 			if (objects.contains(listener.getListenerObject()) || objects.contains(listener)) {
 				// On le retire via l'metteur
-				emitter.getValue().remove(listener);
+				emitter.remove(listener);
+			}
+		}
+		// Et ceux qui ont t inscrits par bindWeak()
+		Collection<WeakListener<?>> weak = emitter.getListeners(WeakListener.class);
+		for (WeakListener<?> listener : weak) {
+			Object target = listener.get();
+			if (target != null && objects.contains(target)) {
+				emitter.remove(listener);
 			}
 		}
 	}
@@ -166,34 +378,33 @@ public class Events {
 	@SuppressWarnings("rawtypes")
 	public static IEventEmitter getEventEmitter(Object source, String eventName, boolean caseSensitive)
 			throws IllegalArgumentException, IllegalAccessException {
-		// Insensible  la case
-		if (!caseSensitive) {
-			eventName = eventName.toLowerCase();
-		}
-		// On parcours les attributs de l'objet source
-		for (Field field : source.getClass().getFields()) {
-			// On vrifie qu'il soit de type IEventEmitter
-			if (!field.getType().isAssignableFrom(IEventEmitter.class)) continue;
-			// Et que son nom match
-			if (!caseSensitive) {
-				if (!field.getName().toLowerCase().equals(eventName)) continue;
+		Field field = getEventEmitterField(source.getClass(), eventName, caseSensitive);
+		// On n'a pas trouv le champ
+		if (field == null) {
+			return null;
+		}
+		return (IEventEmitter) field.get(source);
+	}
+	
+	/**
+	 * Renvoie le champ de type IEventEmitter qui correspond  l'event donn sur la classe source.
+	 */
+	private static Field getEventEmitterField(Class<?> sourceType, String eventName, boolean caseSensitive) {
+		// On parcours les champs metteurs de la classe source
+		for (Field field : EMITTER_FIELDS.get(sourceType)) {
+			// Et on vrifie que son nom match
+			if (caseSensitive ? field.getName().equals(eventName) : field.getName().equalsIgnoreCase(eventName)) {
+				return field;
 			}
-			else if (!field.getName().equals(eventName)) continue;
-			// Si tout est OK on renvoie le champ
-			return (IEventEmitter) field.get(source);
 		}
-		// On n'a pas trouv le champ
 		return null;
 	}
 	
 	@SuppressWarnings("rawtypes")
 	public static Map<String, IEventEmitter> getEventEmitters(Object source) throws IllegalArgumentException, IllegalAccessException {
 		Map<String, IEventEmitter> emitters = new HashMap<>();
-		// On parcours les attributs de l'objet source
-		for (Field field : source.getClass().getFields()) {
-			// On vrifie qu'il soit de type IEventEmitter
-			if (!field.getType().isAssignableFrom(IEventEmitter.class)) continue;
-			// Si tout est OK on renvoie le champ
+		// On parcours les champs metteurs de l'objet source
+		for (Field field : EMITTER_FIELDS.get(source.getClass())) {
 			emitters.put(field.getName(), (IEventEmitter) field.get(source));
 		}
 		return emitters;
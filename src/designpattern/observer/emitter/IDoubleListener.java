@@ -0,0 +1,22 @@
+package designpattern.observer.emitter;
+
+/**
+ * Listener spcialis pour les events de type double, qui reoit la valeur
+ * sans boxing quand il est inscrit sur un DoubleEventEmitter.
+ * 
+ * @see DoubleEventEmitter
+ */
+@FunctionalInterface
+public interface IDoubleListener extends IListener<Double> {
+
+	public void notify(double event);
+
+	/**
+	 * Quand le listener est notifi par un metteur gnrique.
+	 */
+	@Override
+	public default void notify(Double event) {
+		notify(event.doubleValue());
+	}
+
+}
@@ -0,0 +1,23 @@
+package designpattern.observer.emitter;
+
+import designpattern.observer.emitter.Events.ErrorHandler;
+
+/**
+ * Un binder gnr  la compilation par BindEventProcessor pour une classe de
+ * listener. Il inscrit directement les mthodes annotes @BindEvent sur les
+ * metteurs de la source, sans dcouverte par rflexion.
+ * 
+ * Le binder d'une classe Foo s'appelle Foo$$EventBinder, dans le mme package.
+ * 
+ * @see designpattern.observer.emitter.processor.BindEventProcessor
+ */
+public interface IEventBinder<L> {
+
+	/**
+	 * Le suffixe ajout au nom de la classe du listener.
+	 */
+	public static final String SUFFIX = "$$EventBinder";
+
+	public void bind(Object source, L listener, ErrorHandler handler) throws IllegalAccessException;
+
+}
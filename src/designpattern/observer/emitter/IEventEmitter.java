@@ -2,11 +2,18 @@ package designpattern.observer.emitter;
 
 import java.util.Collection;
 
+import designpattern.observer.dispatcher.ISubscription;
+
 public interface IEventEmitter<E> {
 
 	void notify(E event);
 
-	void add(IListener<E> listener);
+	/**
+	 * Inscrit un listener.
+	 * 
+	 * @return L'inscription, qui retire ce listener sans le rechercher.
+	 */
+	ISubscription add(IListener<E> listener);
 	
 	void remove(IListener<E> listener);
 
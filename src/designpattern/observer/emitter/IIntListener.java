@@ -0,0 +1,22 @@
+package designpattern.observer.emitter;
+
+/**
+ * Listener spcialis pour les events de type int, qui reoit la valeur
+ * sans boxing quand il est inscrit sur un IntEventEmitter.
+ * 
+ * @see IntEventEmitter
+ */
+@FunctionalInterface
+public interface IIntListener extends IListener<Integer> {
+
+	public void notify(int event);
+
+	/**
+	 * Quand le listener est notifi par un metteur gnrique.
+	 */
+	@Override
+	public default void notify(Integer event) {
+		notify(event.intValue());
+	}
+
+}
@@ -0,0 +1,22 @@
+package designpattern.observer.emitter;
+
+/**
+ * Listener spcialis pour les events de type long, qui reoit la valeur
+ * sans boxing quand il est inscrit sur un LongEventEmitter.
+ * 
+ * @see LongEventEmitter
+ */
+@FunctionalInterface
+public interface ILongListener extends IListener<Long> {
+
+	public void notify(long event);
+
+	/**
+	 * Quand le listener est notifi par un metteur gnrique.
+	 */
+	@Override
+	public default void notify(Long event) {
+		notify(event.longValue());
+	}
+
+}
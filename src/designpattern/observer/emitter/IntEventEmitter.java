@@ -0,0 +1,147 @@
+package designpattern.observer.emitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import designpattern.observer.dispatcher.ISubscription;
+
+/**
+ * Un metteur spcialis pour les events de type int : notify(int) ne fabrique
+ * aucun Integer, ni aucun itrateur, quand les listeners sont des IIntListener.
+ * 
+ * Il reste un IEventEmitter&lt;Integer&gt;, ce qui permet d'y inscrire des IListener
+ * gnriques (la valeur est alors boxe pour eux seuls) et de le binder avec
+ * Events.bind().
+ */
+public class IntEventEmitter implements IEventEmitter<Integer> {
+	
+	private static final IIntListener[] EMPTY = new IIntListener[0];
+	
+	private IIntListener[] _listeners = EMPTY;
+
+	/**
+	 * Propage la valeur, sans boxing.
+	 */
+	public void notify(int event) {
+		IIntListener[] listeners = _listeners;
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].notify(event);
+		}
+	}
+
+	@Override
+	public void notify(Integer event) {
+		notify(event.intValue());
+	}
+
+	/**
+	 * Inscrit un listener, notifi sans boxing.
+	 * 
+	 * @return L'inscription, qui retire cette instance du listener.
+	 */
+	public ISubscription add(final IIntListener listener) {
+		IIntListener[] listeners = Arrays.copyOf(_listeners, _listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+		_listeners = listeners;
+		return new ISubscription() {
+			@Override
+			public void close() {
+				IIntListener[] listeners = _listeners;
+				for (int i = 0; i < listeners.length; i++) {
+					if (listeners[i] == listener) {
+						remove(i);
+						return;
+					}
+				}
+			}
+		};
+	}
+
+	@Override
+	public ISubscription add(IListener<Integer> listener) {
+		if (listener instanceof IIntListener) {
+			return add((IIntListener) listener);
+		}
+		// Un listener gnrique est adapt : il recevra la valeur boxe
+		return add(new Boxing(listener));
+	}
+
+	@Override
+	public void remove(IListener<Integer> listener) {
+		IIntListener[] listeners = _listeners;
+		for (int i = 0; i < listeners.length; i++) {
+			if (unwrap(listeners[i]).equals(listener)) {
+				remove(i);
+				return;
+			}
+		}
+	}
+	
+	private void remove(int index) {
+		IIntListener[] listeners = _listeners;
+		IIntListener[] copy = new IIntListener[listeners.length - 1];
+		System.arraycopy(listeners, 0, copy, 0, index);
+		System.arraycopy(listeners, index + 1, copy, index, copy.length - index);
+		_listeners = copy;
+	}
+	
+	public void dispose() {
+		_listeners = EMPTY;
+	}
+
+	@Override
+	public Collection<IListener<Integer>> getListeners() {
+		List<IListener<Integer>> list = new ArrayList<>();
+		for (IIntListener listener : _listeners) {
+			list.add(unwrap(listener));
+		}
+		return list;
+	}
+
+	@Override
+	public boolean hasListeners() {
+		return _listeners.length > 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends IListener<Integer>> Collection<T> getListeners(Class<T> t) {
+		List<T> list = new ArrayList<>();
+		for (IIntListener listener : _listeners) {
+			IListener<Integer> l = unwrap(listener);
+			if (t.isInstance(l))
+				list.add((T) l);
+		}
+		return list;
+	}
+
+	@Override
+	public int getListenersCount() {
+		return _listeners.length;
+	}
+	
+	private static IListener<Integer> unwrap(IIntListener listener) {
+		return listener instanceof Boxing ? ((Boxing) listener)._listener : listener;
+	}
+	
+	/**
+	 * Adapte un IListener gnrique.
+	 */
+	private static final class Boxing implements IIntListener {
+		
+		private final IListener<Integer> _listener;
+		
+		Boxing(IListener<Integer> listener) {
+			_listener = listener;
+		}
+		
+		@Override
+		public void notify(int event) {
+			_listener.notify(event);
+		}
+		
+	}
+
+}
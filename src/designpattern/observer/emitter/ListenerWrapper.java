@@ -1,35 +1,477 @@
 package designpattern.observer.emitter;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import designpattern.observer.emitter.Events.ErrorHandler;
 
+/**
+ * Le listener inscrit par Events.bind() pour une mthode annote.
+ * 
+ * Quand la mthode est publique, dans une classe publique, l'appel passe par
+ * une lambda fabrique par LambdaMetafactory : c'est un appel direct  la
+ * mthode, que le JIT traite comme celui d'une lambda crite  la main.
+ * Quand le paramtre est primitif, un MethodHandle fait l'unboxing et
+ * l'largissement comme Method.invoke (un Integer vers un long). Sinon, on
+ * se rabat sur la rflexion.
+ * 
+ * Quel que soit le chemin, une exception leve par la mthode est transmise
+ * au handler dans une InvocationTargetException, comme avec la rflexion.
+ */
 class ListenerWrapper<E> implements IListener<E> {
 
 	private Method _method;
 	private Object _listener;
 	private ErrorHandler _handler;
+	
+	/**
+	 * L'appel direct  la mthode, ou NULL s'il n'a pas pu tre fabriqu.
+	 */
+	private IListener<E> _invoker;
+	
+	/**
+	 * L'appel de la mthode  paramtre primitif, adapt  un event encapsul,
+	 * ou NULL.
+	 */
+	private MethodHandle _handle;
 
-	public ListenerWrapper(Method method, Object listener, Events.ErrorHandler handler) {
+	@SuppressWarnings("unchecked")
+	public ListenerWrapper(Method method, Object listener, Events.ErrorHandler handler) throws IllegalAccessException {
 		this._method = method;
 		this._listener = listener;
 		this._handler = handler;
+		// Les sous-classes primitives fabriquent leur propre invoker
+		if (getClass() == ListenerWrapper.class) {
+			this._invoker = (IListener<E>) generate(IListener.class, Object.class);
+			if (_invoker == null && method.getParameterCount() == 1 && method.getParameterTypes()[0].isPrimitive()) {
+				this._handle = handle(Object.class);
+			}
+		}
+	}
+	
+	/**
+	 * Constructeur pour un invoker dj compil, fourni par un binder gnr.
+	 */
+	ListenerWrapper(IListener<E> invoker, Object listener, Events.ErrorHandler handler) {
+		this._listener = listener;
+		this._handler = handler;
+		this._invoker = invoker;
+	}
+	
+	/**
+	 * Enveloppe un invoker fourni par un binder gnr. Un invoker primitif
+	 * reste primitif, pour ne pas boxer sur un metteur spcialis.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static ListenerWrapper wrap(IListener<?> invoker, Object listener, ErrorHandler handler) {
+		if (invoker instanceof IIntListener) {
+			return new OfInt((IIntListener) invoker, listener, handler);
+		}
+		if (invoker instanceof ILongListener) {
+			return new OfLong((ILongListener) invoker, listener, handler);
+		}
+		if (invoker instanceof IDoubleListener) {
+			return new OfDouble((IDoubleListener) invoker, listener, handler);
+		}
+		return new ListenerWrapper(invoker, listener, handler);
+	}
+	
+	/**
+	 * Fabrique le wrapper adapt  l'metteur : sur un metteur de primitifs,
+	 * la valeur est passe  la mthode sans boxing.
+	 */
+	@SuppressWarnings("rawtypes")
+	static ListenerWrapper create(Method method, Object listener, ErrorHandler handler, IEventEmitter<?> emitter)
+			throws IllegalAccessException {
+		if (emitter instanceof IntEventEmitter) {
+			return new OfInt(method, listener, handler);
+		}
+		if (emitter instanceof LongEventEmitter) {
+			return new OfLong(method, listener, handler);
+		}
+		if (emitter instanceof DoubleEventEmitter) {
+			return new OfDouble(method, listener, handler);
+		}
+		return new ListenerWrapper(method, listener, handler);
 	}
 	
 	@Override
 	public void notify(E event) {
-		try {
-			_method.invoke(_listener, event);
+		// Les wrappers primitifs largissent eux-mmes la valeur
+		if (notifyBoxed(event)) {
+			return;
 		}
-		catch (Throwable ex) {
-			if (_handler != null) {
-				_handler.handleException(ex, false);
+		if (_invoker != null) {
+			try {
+				_invoker.notify(event);
+			}
+			catch (Throwable ex) {
+				handleException(new InvocationTargetException(ex));
+			}
+		}
+		else if (_handle != null) {
+			try {
+				_handle.invokeExact((Object) event);
+			}
+			catch (Throwable ex) {
+				handleException(new InvocationTargetException(ex));
+			}
+		}
+		else {
+			try {
+				_method.invoke(_listener, event);
+			}
+			catch (Throwable ex) {
+				handleException(ex);
 			}
 		}
 	}
 	
+	/**
+	 * Pour les wrappers primitifs, notifie avec un event encapsul venant
+	 * d'un metteur gnrique, largi comme le ferait Method.invoke (un
+	 * Integer vers un long).
+	 * 
+	 * @return FALSE si le wrapper n'est pas primitif.
+	 */
+	protected boolean notifyBoxed(Object event) {
+		return false;
+	}
+	
+	/**
+	 * Renvoie la conversion d'un event encapsul vers le type primitif donn,
+	 * avec unboxing et largissement.
+	 */
+	static MethodHandle unbox(Class<?> type) {
+		return MethodHandles.identity(type).asType(MethodType.methodType(type, Object.class));
+	}
+	
+	protected void handleException(Throwable ex) {
+		if (_handler != null) {
+			_handler.handleException(ex, false);
+		}
+	}
+	
 	public Object getListenerObject() {
 		return _listener;
 	}
+	
+	/**
+	 * Fabrique par LambdaMetafactory une instance de l'interface fonctionnelle
+	 * donne, dont la mthode notify() appelle directement la mthode du listener.
+	 * 
+	 * @param type L'interface fonctionnelle (IListener ou un listener primitif).
+	 * @param eventType Le type du paramtre de sa mthode notify().
+	 * @return L'instance, ou NULL si la mthode ne peut pas tre appele directement.
+	 */
+	protected Object generate(Class<?> type, Class<?> eventType) {
+		MethodHandle factory = factory(_method, type, eventType);
+		if (factory == NONE) {
+			return null;
+		}
+		try {
+			return Modifier.isStatic(_method.getModifiers()) ? factory.invoke() : factory.invoke(_listener);
+		}
+		catch (Throwable ex) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Les interfaces fonctionnelles pour lesquelles on fabrique des invokers,
+	 * dans l'ordre des cases des tableaux de FACTORIES.
+	 */
+	private static final Class<?>[] INTERFACES = { IListener.class, IIntListener.class, ILongListener.class, IDoubleListener.class };
+	
+	/**
+	 * Marque une mthode qui ne peut pas tre appele directement.
+	 */
+	private static final MethodHandle NONE = MethodHandles.constant(Object.class, null);
+	
+	/**
+	 * Les fabriques d'invokers, par classe puis par mthode. La classe gnre
+	 * par LambdaMetafactory n'est cre qu'une fois par mthode : les bind()
+	 * suivants ne font qu'instancier la lambda.
+	 */
+	private static final ClassValue<ConcurrentMap<Method, MethodHandle[]>> FACTORIES = new ClassValue<ConcurrentMap<Method, MethodHandle[]>>() {
+		@Override
+		protected ConcurrentMap<Method, MethodHandle[]> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<Method, MethodHandle[]>();
+		}
+	};
+	
+	/**
+	 * Renvoie la fabrique (listener) -> invoker de la mthode, ou NONE.
+	 */
+	private static MethodHandle factory(Method method, Class<?> type, Class<?> eventType) {
+		ConcurrentMap<Method, MethodHandle[]> table = FACTORIES.get(method.getDeclaringClass());
+		MethodHandle[] factories = table.get(method);
+		if (factories == null) {
+			factories = new MethodHandle[INTERFACES.length];
+			MethodHandle[] previous = table.putIfAbsent(method, factories);
+			if (previous != null) {
+				factories = previous;
+			}
+		}
+		int index = Arrays.asList(INTERFACES).indexOf(type);
+		MethodHandle factory = factories[index];
+		if (factory == null) {
+			factory = metafactory(method, type, eventType);
+			factories[index] = factory;
+		}
+		return factory;
+	}
+	
+	private static MethodHandle metafactory(Method method, Class<?> type, Class<?> eventType) {
+		
+		// La classe gnre doit pouvoir appeler la mthode, et voir sa classe
+		Class<?> owner = method.getDeclaringClass();
+		if (method.getParameterCount() != 1
+				|| !Modifier.isPublic(method.getModifiers())
+				|| !Modifier.isPublic(owner.getModifiers())
+				|| !isVisible(owner)) {
+			return NONE;
+		}
+		
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle target = lookup.unreflect(method);
+			boolean isStatic = Modifier.isStatic(method.getModifiers());
+			
+			// Pour un IListener gnrique, l'event est cast vers le type du paramtre.
+			// Un paramtre primitif n'accepterait alors que son propre wrapper, sans
+			// largissement : c'est un MethodHandle qui s'en charge.
+			Class<?> param = method.getParameterTypes()[0];
+			if (eventType == Object.class && param.isPrimitive()) {
+				return NONE;
+			}
+			Class<?> instantiated = eventType == Object.class ? MethodType.methodType(param).wrap().returnType() : eventType;
+			
+			CallSite site = LambdaMetafactory.metafactory(lookup, "notify",
+					isStatic ? MethodType.methodType(type) : MethodType.methodType(type, owner),
+					MethodType.methodType(void.class, eventType),
+					target,
+					MethodType.methodType(void.class, instantiated));
+			return site.getTarget();
+		}
+		// Signature non adaptable : la rflexion prendra le relais
+		catch (Throwable ex) {
+			return NONE;
+		}
+		
+	}
+	
+	private static boolean isVisible(Class<?> type) {
+		try {
+			return Class.forName(type.getName(), false, ListenerWrapper.class.getClassLoader()) == type;
+		}
+		catch (ClassNotFoundException ex) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Renvoie un handle sur la mthode, li au listener, qui prend un seul
+	 * argument du type donn : primitif, ou Object pour un event encapsul.
+	 */
+	protected MethodHandle handle(Class<?> type) throws IllegalAccessException {
+		// Pour permetre l'invocation d'une mthode dans une classe interne
+		_method.setAccessible(true);
+		MethodHandle handle = MethodHandles.lookup().unreflect(_method);
+		if (!Modifier.isStatic(_method.getModifiers())) {
+			handle = handle.bindTo(_listener);
+		}
+		return handle.asType(MethodType.methodType(void.class, type));
+	}
+	
+	/**
+	 * Fabrique l'appel de la mthode pour un listener inscrit par
+	 * Events.bindWeak() : le handle n'est pas li au listener, qui lui est
+	 * pass  chaque appel, pour ne pas le retenir.
+	 */
+	static WeakListener.Call<Object> weakCall(Method method, final ErrorHandler handler) throws IllegalAccessException {
+		// Pour permetre l'invocation d'une mthode dans une classe interne
+		method.setAccessible(true);
+		MethodHandle handle = MethodHandles.lookup().unreflect(method);
+		if (Modifier.isStatic(method.getModifiers())) {
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		final MethodHandle invoker = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return new WeakListener.Call<Object>() {
+			@Override
+			public void notify(Object target, Object event) {
+				try {
+					invoker.invokeExact(target, event);
+				}
+				catch (Throwable ex) {
+					if (handler != null) {
+						handler.handleException(new InvocationTargetException(ex), false);
+					}
+				}
+			}
+		};
+	}
+	
+	static final class OfInt extends ListenerWrapper<Integer> implements IIntListener {
+		
+		private static final MethodHandle UNBOX = unbox(int.class);
+		
+		private final IIntListener _direct;
+		
+		private final MethodHandle _handle;
+		
+		OfInt(Method method, Object listener, ErrorHandler handler) throws IllegalAccessException {
+			super(method, listener, handler);
+			_direct = (IIntListener) generate(IIntListener.class, int.class);
+			_handle = _direct == null ? handle(int.class) : null;
+		}
+		
+		OfInt(IIntListener direct, Object listener, ErrorHandler handler) {
+			super(direct, listener, handler);
+			_direct = direct;
+			_handle = null;
+		}
+
+		@Override
+		protected boolean notifyBoxed(Object event) {
+			int value;
+			try {
+				value = (int) UNBOX.invokeExact(event);
+			}
+			catch (Throwable ex) {
+				handleException(ex);
+				return true;
+			}
+			notify(value);
+			return true;
+		}
+
+		@Override
+		public void notify(int event) {
+			try {
+				if (_direct != null) {
+					_direct.notify(event);
+				}
+				else {
+					_handle.invokeExact(event);
+				}
+			}
+			catch (Throwable ex) {
+				handleException(new InvocationTargetException(ex));
+			}
+		}
+		
+	}
+	
+	static final class OfLong extends ListenerWrapper<Long> implements ILongListener {
+		
+		private static final MethodHandle UNBOX = unbox(long.class);
+		
+		private final ILongListener _direct;
+		
+		private final MethodHandle _handle;
+		
+		OfLong(Method method, Object listener, ErrorHandler handler) throws IllegalAccessException {
+			super(method, listener, handler);
+			_direct = (ILongListener) generate(ILongListener.class, long.class);
+			_handle = _direct == null ? handle(long.class) : null;
+		}
+		
+		OfLong(ILongListener direct, Object listener, ErrorHandler handler) {
+			super(direct, listener, handler);
+			_direct = direct;
+			_handle = null;
+		}
+
+		@Override
+		protected boolean notifyBoxed(Object event) {
+			long value;
+			try {
+				value = (long) UNBOX.invokeExact(event);
+			}
+			catch (Throwable ex) {
+				handleException(ex);
+				return true;
+			}
+			notify(value);
+			return true;
+		}
+
+		@Override
+		public void notify(long event) {
+			try {
+				if (_direct != null) {
+					_direct.notify(event);
+				}
+				else {
+					_handle.invokeExact(event);
+				}
+			}
+			catch (Throwable ex) {
+				handleException(new InvocationTargetException(ex));
+			}
+		}
+		
+	}
+	
+	static final class OfDouble extends ListenerWrapper<Double> implements IDoubleListener {
+		
+		private static final MethodHandle UNBOX = unbox(double.class);
+		
+		private final IDoubleListener _direct;
+		
+		private final MethodHandle _handle;
+		
+		OfDouble(Method method, Object listener, ErrorHandler handler) throws IllegalAccessException {
+			super(method, listener, handler);
+			_direct = (IDoubleListener) generate(IDoubleListener.class, double.class);
+			_handle = _direct == null ? handle(double.class) : null;
+		}
+		
+		OfDouble(IDoubleListener direct, Object listener, ErrorHandler handler) {
+			super(direct, listener, handler);
+			_direct = direct;
+			_handle = null;
+		}
+
+		@Override
+		protected boolean notifyBoxed(Object event) {
+			double value;
+			try {
+				value = (double) UNBOX.invokeExact(event);
+			}
+			catch (Throwable ex) {
+				handleException(ex);
+				return true;
+			}
+			notify(value);
+			return true;
+		}
+
+		@Override
+		public void notify(double event) {
+			try {
+				if (_direct != null) {
+					_direct.notify(event);
+				}
+				else {
+					_handle.invokeExact(event);
+				}
+			}
+			catch (Throwable ex) {
+				handleException(new InvocationTargetException(ex));
+			}
+		}
+		
+	}
 
 }
@@ -0,0 +1,147 @@
+package designpattern.observer.emitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import designpattern.observer.dispatcher.ISubscription;
+
+/**
+ * Un metteur spcialis pour les events de type long : notify(long) ne fabrique
+ * aucun Long, ni aucun itrateur, quand les listeners sont des ILongListener.
+ * 
+ * Il reste un IEventEmitter&lt;Long&gt;, ce qui permet d'y inscrire des IListener
+ * gnriques (la valeur est alors boxe pour eux seuls) et de le binder avec
+ * Events.bind().
+ */
+public class LongEventEmitter implements IEventEmitter<Long> {
+	
+	private static final ILongListener[] EMPTY = new ILongListener[0];
+	
+	private ILongListener[] _listeners = EMPTY;
+
+	/**
+	 * Propage la valeur, sans boxing.
+	 */
+	public void notify(long event) {
+		ILongListener[] listeners = _listeners;
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].notify(event);
+		}
+	}
+
+	@Override
+	public void notify(Long event) {
+		notify(event.longValue());
+	}
+
+	/**
+	 * Inscrit un listener, notifi sans boxing.
+	 * 
+	 * @return L'inscription, qui retire cette instance du listener.
+	 */
+	public ISubscription add(final ILongListener listener) {
+		ILongListener[] listeners = Arrays.copyOf(_listeners, _listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+		_listeners = listeners;
+		return new ISubscription() {
+			@Override
+			public void close() {
+				ILongListener[] listeners = _listeners;
+				for (int i = 0; i < listeners.length; i++) {
+					if (listeners[i] == listener) {
+						remove(i);
+						return;
+					}
+				}
+			}
+		};
+	}
+
+	@Override
+	public ISubscription add(IListener<Long> listener) {
+		if (listener instanceof ILongListener) {
+			return add((ILongListener) listener);
+		}
+		// Un listener gnrique est adapt : il recevra la valeur boxe
+		return add(new Boxing(listener));
+	}
+
+	@Override
+	public void remove(IListener<Long> listener) {
+		ILongListener[] listeners = _listeners;
+		for (int i = 0; i < listeners.length; i++) {
+			if (unwrap(listeners[i]).equals(listener)) {
+				remove(i);
+				return;
+			}
+		}
+	}
+	
+	private void remove(int index) {
+		ILongListener[] listeners = _listeners;
+		ILongListener[] copy = new ILongListener[listeners.length - 1];
+		System.arraycopy(listeners, 0, copy, 0, index);
+		System.arraycopy(listeners, index + 1, copy, index, copy.length - index);
+		_listeners = copy;
+	}
+	
+	public void dispose() {
+		_listeners = EMPTY;
+	}
+
+	@Override
+	public Collection<IListener<Long>> getListeners() {
+		List<IListener<Long>> list = new ArrayList<>();
+		for (ILongListener listener : _listeners) {
+			list.add(unwrap(listener));
+		}
+		return list;
+	}
+
+	@Override
+	public boolean hasListeners() {
+		return _listeners.length > 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends IListener<Long>> Collection<T> getListeners(Class<T> t) {
+		List<T> list = new ArrayList<>();
+		for (ILongListener listener : _listeners) {
+			IListener<Long> l = unwrap(listener);
+			if (t.isInstance(l))
+				list.add((T) l);
+		}
+		return list;
+	}
+
+	@Override
+	public int getListenersCount() {
+		return _listeners.length;
+	}
+	
+	private static IListener<Long> unwrap(ILongListener listener) {
+		return listener instanceof Boxing ? ((Boxing) listener)._listener : listener;
+	}
+	
+	/**
+	 * Adapte un IListener gnrique.
+	 */
+	private static final class Boxing implements ILongListener {
+		
+		private final IListener<Long> _listener;
+		
+		Boxing(IListener<Long> listener) {
+			_listener = listener;
+		}
+		
+		@Override
+		public void notify(long event) {
+			_listener.notify(event);
+		}
+		
+	}
+
+}
@@ -1,12 +1,14 @@
 package designpattern.observer.emitter;
 
+import designpattern.observer.dispatcher.ISubscription;
+
 public class Test {
 	
 	public static class Sensor {
 		
-		public final IEventEmitter<Double> OnTemperatureChanged = new EventEmitter<Double>();
+		public final DoubleEventEmitter OnTemperatureChanged = new DoubleEventEmitter();
 		
-		public final IEventEmitter<Double> OnHumidityChanged = new EventEmitter<Double>();
+		public final DoubleEventEmitter OnHumidityChanged = new DoubleEventEmitter();
 		
 		public void readData() {
 			double t = Math.random() * 20;
@@ -60,17 +62,21 @@ public class Test {
 		
 		// Bind mthode par mthode
 		Observer o1 = new Observer();
-		s.OnHumidityChanged.add(o1::onHumidityChanged);
-		s.OnTemperatureChanged.add(o1::onTemperatureChanged);
+		ISubscription humidity = s.OnHumidityChanged.add(o1::onHumidityChanged);
+		ISubscription temperature = s.OnTemperatureChanged.add(o1::onTemperatureChanged);
 		
 		// Bind des mthodes annotes
 		AnnotedObserver o2 = new AnnotedObserver();
 		Events.bind(s, o2);
 		
-		// Ne fonctionne pas
+		// Ne fonctionne pas : chaque o1::onHumidityChanged est une nouvelle instance
 		//s.OnHumidityChanged.remove(o1::onHumidityChanged);
 		//s.OnHumidityChanged.remove(o1::onTemperatureChanged);
 		
+		// Il faut passer par l'inscription
+		//humidity.close();
+		//temperature.close();
+		
 		// Unbind
 		//Events.unbind(s, o1, o2);
 		
@@ -0,0 +1,84 @@
+package designpattern.observer.emitter;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Un listener inscrit par addWeak() ou Events.bindWeak() : l'metteur ne
+ * garde qu'une rfrence faible vers l'objet qui coute.
+ *
+ * Une fois l'objet libr par le GC, le listener ne fait plus rien, et il se
+ * retrouve dans la file de l'metteur, qui le retire  la propagation suivante.
+ */
+final class WeakListener<E> extends WeakReference<Object> implements IListener<E> {
+
+	/**
+	 * L'appel de l'objet qui coute.
+	 */
+	@FunctionalInterface
+	interface Call<E> {
+		void notify(Object target, E event);
+	}
+
+	/**
+	 * L'appel d'un IListener.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final Call DIRECT = new Call() {
+		@SuppressWarnings("unchecked")
+		@Override
+		public void notify(Object target, Object event) {
+			((IListener) target).notify(event);
+		}
+	};
+
+	private final Call<E> _call;
+
+	WeakListener(Object target, Call<E> call, ReferenceQueue<Object> queue) {
+		super(target, queue);
+		_call = call;
+	}
+
+	/**
+	 * Fabrique le listener faible d'un IListener.
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> WeakListener<E> of(IListener<E> listener, ReferenceQueue<Object> queue) {
+		return new WeakListener<E>(listener, DIRECT, queue);
+	}
+
+	@Override
+	public void notify(E event) {
+		Object target = get();
+		if (target != null) {
+			_call.notify(target, event);
+		}
+	}
+
+	/**
+	 * Indique si ce listener rfrence l'objet donn.
+	 */
+	boolean targets(Object target) {
+		return target != null && get() == target;
+	}
+
+	/**
+	 * Retire de l'metteur les listeners dont l'objet a t libr. Tant
+	 * qu'aucun ne l'a t, ne cote qu'une lecture de la file, sans verrou ni
+	 * allocation.
+	 */
+	@SuppressWarnings("unchecked")
+	static <E> void prune(ReferenceQueue<Object> queue, IEventEmitter<E> emitter) {
+		Reference<?> reference;
+		while ((reference = queue.poll()) != null) {
+			emitter.remove((WeakListener<E>) reference);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "WeakListener[" + get() + "]";
+	}
+
+}
@@ -0,0 +1,93 @@
+package designpattern.observer.emitter;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Vrifie qu'une mthode @BindEvent  paramtre primitif reoit les events
+ * d'un metteur gnrique d'un type plus troit (un long sur un
+ * IEventEmitter<Integer>), et que le handler reoit la mme exception
+ * quel que soit le chemin d'appel.
+ *
+ * Lve une AssertionError en cas d'chec.
+ */
+public class WideningTest {
+
+	public static class Source {
+		public final IEventEmitter<Integer> OnCount = new EventEmitter<Integer>();
+		public final IEventEmitter<String> OnText = new EventEmitter<String>();
+	}
+
+	public static class Observer {
+		long count;
+		double ratio;
+		@BindEvent
+		public void OnCount(long value) {
+			count = value;
+		}
+		@BindEvent("OnCount")
+		public void onRatio(double value) {
+			ratio = value;
+		}
+		@BindEvent
+		public void OnText(String value) {
+			throw new IllegalStateException(value);
+		}
+	}
+
+	static class HiddenObserver {
+		@BindEvent
+		public void OnText(String value) {
+			throw new IllegalStateException(value);
+		}
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	public static void main(String[] args) {
+
+		final Throwable[] errors = new Throwable[1];
+		Events.ErrorHandler handler = new Events.ErrorHandler() {
+			public void handleException(Throwable ex, boolean bindingError) {
+				errors[0] = ex;
+			}
+		};
+
+		// Par Events.bind() : Integer -> long et Integer -> double
+		Source source = new Source();
+		Observer observer = new Observer();
+		Events.bind(source, observer, handler);
+		source.OnCount.notify(3);
+		check(errors[0] == null, "Integer -> long : " + errors[0]);
+		check(observer.count == 3L, "Integer -> long : " + observer.count);
+		check(observer.ratio == 3.0, "Integer -> double : " + observer.ratio);
+
+		// Par un invoker primitif, comme ceux des binders gnrs
+		Source generated = new Source();
+		final Observer target = new Observer();
+		Events.bindInvoker(generated.OnCount, target, (ILongListener) target::OnCount, handler);
+		generated.OnCount.notify(5);
+		check(errors[0] == null, "Integer -> long (binder) : " + errors[0]);
+		check(target.count == 5L, "Integer -> long (binder) : " + target.count);
+
+		// Appel direct : l'exception arrive dans une InvocationTargetException
+		source.OnText.notify("direct");
+		check(errors[0] instanceof InvocationTargetException, "direct : " + errors[0]);
+		check(errors[0].getCause() instanceof IllegalStateException, "direct : " + errors[0].getCause());
+
+		// Par rflexion : mme forme
+		errors[0] = null;
+		Source hidden = new Source();
+		Events.bind(hidden, new HiddenObserver(), handler);
+		hidden.OnText.notify("reflection");
+		check(errors[0] instanceof InvocationTargetException, "reflection : " + errors[0]);
+		check(errors[0].getCause() instanceof IllegalStateException, "reflection : " + errors[0].getCause());
+
+		System.out.println("OK : widening");
+
+	}
+
+}
@@ -0,0 +1,212 @@
+package designpattern.observer.emitter.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+
+import designpattern.observer.emitter.BindEvent;
+import designpattern.observer.emitter.IEventBinder;
+
+/**
+ * Processeur d'annotations qui gnre, pour chaque classe de listener ayant des
+ * mthodes annotes @BindEvent, un binder (IEventBinder) qui inscrit ces mthodes
+ * sur les metteurs de la source avec des rfrences de mthodes : ni
+ * getMethods(), ni lecture des annotations, ni Method.invoke()  l'excution.
+ *
+ * Events.bind() utilise le binder s'il existe, et se rabat sur la rflexion sinon.
+ * Aucun binder n'est gnr pour une classe dont une mthode annote ne peut
+ * pas tre appele directement (classe prive, mthode sans paramtre unique...).
+ *
+ * Le processeur est dclar dans META-INF/services : il suffit d'avoir ces
+ * classes dans le classpath de javac pour qu'il soit lanc.
+ */
+@SupportedAnnotationTypes("designpattern.observer.emitter.BindEvent")
+public class BindEventProcessor extends AbstractProcessor {
+
+	private static final String EVENTS = "designpattern.observer.emitter.Events";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+		// On regroupe les mthodes annotes par classe
+		Set<TypeElement> types = new LinkedHashSet<>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(BindEvent.class)) {
+			types.add((TypeElement) element.getEnclosingElement());
+		}
+
+		// Un binder par classe
+		for (TypeElement type : types) {
+			try {
+				generate(type);
+			}
+			catch (IOException ex) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write event binder: " + ex.getMessage(), type);
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Gnre le binder d'une classe de listener.
+	 */
+	private void generate(TypeElement type) throws IOException {
+
+		// Le binder est dans le mme package : la classe ne doit pas tre prive
+		if (!isAccessible(type)) {
+			warn("private or local listener class, events will be bound by reflection", type);
+			return;
+		}
+
+		// Comme Events.bind(), on prend les mthodes publiques, y compris hrites
+		List<String> statements = new ArrayList<>();
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+
+			BindEvent annotation = method.getAnnotation(BindEvent.class);
+			if (annotation == null || !method.getModifiers().contains(Modifier.PUBLIC)) continue;
+
+			// La mthode reoit l'event en unique paramtre
+			if (method.getParameters().size() != 1) {
+				warn("@BindEvent method must have exactly one parameter, events will be bound by reflection", method);
+				return;
+			}
+
+			String invoker = invoker(type, method);
+			for (String eventName : annotation.value()) {
+				// Si aucun nom n'est prcis, on rutilise le nom de la mthode
+				if ("".equals(eventName)) eventName = method.getSimpleName().toString();
+				statements.add(String.format("\t\t%s.bindInvoker(%s.getEventEmitter(source, \"%s\", true), listener, %s, handler);%n",
+						EVENTS, EVENTS, eventName, invoker));
+			}
+
+		}
+
+		// Nom du binder : Outer$Inner$$EventBinder
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + IEventBinder.SUFFIX;
+		String listenerType = type.asType().toString();
+
+		// Pour une classe gnrique, le binder reprend ses variables de type :
+		// Foo<T> a un Foo$$EventBinder<T> qui implmente IEventBinder<Foo<T>>
+		List<String> variables = new ArrayList<>();
+		typeVariables(type, variables);
+		String typeParameters = variables.isEmpty() ? "" : "<" + String.join(", ", variables) + ">";
+
+		try (Writer out = processingEnv.getFiler()
+				.createSourceFile(packageName.isEmpty() ? simpleName : packageName + "." + simpleName, type)
+				.openWriter()) {
+			if (!packageName.isEmpty()) {
+				out.write(String.format("package %s;%n%n", packageName));
+			}
+			out.write(String.format("/**%n * Gnr par %s  partir de %s, ne pas modifier.%n */%n",
+					getClass().getSimpleName(), type.getSimpleName()));
+			out.write(String.format("public final class %s%s implements designpattern.observer.emitter.IEventBinder<%s> {%n%n",
+					simpleName, typeParameters, listenerType));
+			out.write(String.format("\t@Override%n"));
+			out.write(String.format("\tpublic void bind(Object source, final %s listener, %s.ErrorHandler handler) throws IllegalAccessException {%n",
+					listenerType, EVENTS));
+			for (String statement : statements) {
+				out.write(statement);
+			}
+			out.write(String.format("\t}%n%n}%n"));
+		}
+
+	}
+
+	/**
+	 * Renvoie la rfrence de mthode, caste vers le listener qui correspond au
+	 * type du paramtre : les types int, long et double ont un listener primitif.
+	 */
+	private String invoker(TypeElement type, ExecutableElement method) {
+		String target = method.getModifiers().contains(Modifier.STATIC)
+				? processingEnv.getTypeUtils().erasure(type.asType()).toString()
+				: "listener";
+		String reference = target + "::" + method.getSimpleName();
+		// Le type du paramtre vu depuis la classe du listener : une mthode
+		// hrite de Base<T> reoit un String si la classe tend Base<String>
+		ExecutableType executable = (ExecutableType) processingEnv.getTypeUtils()
+				.asMemberOf((DeclaredType) type.asType(), method);
+		TypeMirror param = executable.getParameterTypes().get(0);
+		switch (param.getKind()) {
+		case INT:
+			return "(designpattern.observer.emitter.IIntListener) " + reference;
+		case LONG:
+			return "(designpattern.observer.emitter.ILongListener) " + reference;
+		case DOUBLE:
+			return "(designpattern.observer.emitter.IDoubleListener) " + reference;
+		default:
+			TypeMirror boxed = param.getKind().isPrimitive()
+					? processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(param.getKind())).asType()
+					: param;
+			return "(designpattern.observer.emitter.IListener<" + boxed + ">) " + reference;
+		}
+	}
+
+	/**
+	 * Ajoute les variables de type de la classe, avec leurs bornes, prcdes
+	 * de celles des classes englobantes pour une classe interne non statique.
+	 */
+	private static void typeVariables(TypeElement type, List<String> variables) {
+		Element enclosing = type.getEnclosingElement();
+		if (enclosing instanceof TypeElement && !type.getModifiers().contains(Modifier.STATIC)) {
+			typeVariables((TypeElement) enclosing, variables);
+		}
+		for (TypeParameterElement parameter : type.getTypeParameters()) {
+			StringBuilder sb = new StringBuilder(parameter.getSimpleName());
+			String separator = " extends ";
+			for (TypeMirror bound : parameter.getBounds()) {
+				if ("java.lang.Object".equals(bound.toString())) continue;
+				sb.append(separator).append(bound);
+				separator = " & ";
+			}
+			variables.add(sb.toString());
+		}
+	}
+
+	/**
+	 * Indique si la classe est visible depuis son package.
+	 */
+	private static boolean isAccessible(TypeElement type) {
+		Element element = type;
+		while (element instanceof TypeElement) {
+			TypeElement t = (TypeElement) element;
+			if (t.getModifiers().contains(Modifier.PRIVATE)
+					|| t.getNestingKind() == NestingKind.LOCAL
+					|| t.getNestingKind() == NestingKind.ANONYMOUS) {
+				return false;
+			}
+			element = t.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private void warn(String message, Element element) {
+		processingEnv.getMessager().printMessage(Kind.WARNING, message, element);
+	}
+
+}
@@ -0,0 +1,82 @@
+package designpattern.observer.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.List;
+
+/**
+ * Instantan des compteurs d'un event.
+ */
+public class EventSnapshot {
+
+	private final String _event;
+
+	private final long _triggerCount;
+
+	private final long _haltCount;
+
+	private final long _exceptionCount;
+
+	private final LatencySnapshot _latency;
+
+	private final List<ListenerSnapshot> _listeners;
+
+	@ConstructorProperties({ "event", "triggerCount", "haltCount", "exceptionCount", "latency", "listeners" })
+	public EventSnapshot(String event, long triggerCount, long haltCount, long exceptionCount,
+			LatencySnapshot latency, List<ListenerSnapshot> listeners) {
+		_event = event;
+		_triggerCount = triggerCount;
+		_haltCount = haltCount;
+		_exceptionCount = exceptionCount;
+		_latency = latency;
+		_listeners = listeners;
+	}
+
+	/**
+	 * L'event (son toString()).
+	 */
+	public String getEvent() {
+		return _event;
+	}
+
+	/**
+	 * Nombre de propagations.
+	 */
+	public long getTriggerCount() {
+		return _triggerCount;
+	}
+
+	/**
+	 * Nombre de propagations stoppes par un listener.
+	 */
+	public long getHaltCount() {
+		return _haltCount;
+	}
+
+	/**
+	 * Nombre d'exceptions leves par les listeners.
+	 */
+	public long getExceptionCount() {
+		return _exceptionCount;
+	}
+
+	/**
+	 * Dure des propagations, tous listeners compris.
+	 */
+	public LatencySnapshot getLatency() {
+		return _latency;
+	}
+
+	/**
+	 * Les listeners notifis, du plus sollicit au moins sollicit.
+	 */
+	public List<ListenerSnapshot> getListeners() {
+		return _listeners;
+	}
+
+	@Override
+	public String toString() {
+		return _event + " : triggers=" + _triggerCount + " halts=" + _haltCount
+				+ " exceptions=" + _exceptionCount + " " + _latency;
+	}
+
+}
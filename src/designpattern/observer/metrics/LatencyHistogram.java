@@ -0,0 +1,141 @@
+package designpattern.observer.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences, dans l'esprit de HdrHistogram.
+ *
+ * Les valeurs (en nanosecondes) sont ranges dans des cases log-linaires :
+ * chaque puissance de 2 est dcoupe en 16 cases de mme largeur, l'erreur
+ * relative sur un percentile est donc d'au plus 1/16 (6,25 %), quelle que soit
+ * l'chelle. Les valeurs au-del de 2^41 ns (environ 36 minutes) sont comptes
+ * dans la dernire case.
+ *
+ * L'enregistrement est un simple incrment atomique, sans verrou ni allocation.
+ * Les cases sont dans un AtomicLongArray plutt que dans des LongAdder : les
+ * valeurs se rpartissent dj sur plusieurs cases, et l'histogramme reste
+ * petit (608 cases, moins de 5 Ko).
+ */
+public final class LatencyHistogram {
+
+	/**
+	 * Nombre de bits de prcision dans chaque puissance de 2.
+	 */
+	private static final int SUB_BITS = 4;
+
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+
+	/**
+	 * La plus grande valeur distingue.
+	 */
+	private static final long MAX_VALUE = (1L << 41) - 1;
+
+	private final AtomicLongArray _counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+
+	/**
+	 * Somme des valeurs, pour la moyenne.
+	 */
+	private final LongAdder _total = new LongAdder();
+
+	private final LongAccumulator _max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Enregistre une valeur.
+	 */
+	public void record(long nanos) {
+		record(nanos, 1);
+	}
+
+	/**
+	 * Enregistre plusieurs fois la mme valeur.
+	 */
+	public void record(long nanos, long count) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		_counts.addAndGet(index(Math.min(nanos, MAX_VALUE)), count);
+		_total.add(nanos * count);
+		_max.accumulate(nanos);
+	}
+
+	/**
+	 * Remet l'histogramme  zro. Les valeurs enregistres pendant la remise
+	 *  zro peuvent tre perdues.
+	 */
+	public void reset() {
+		for (int i = 0, length = _counts.length(); i < length; i++) {
+			_counts.set(i, 0);
+		}
+		_total.reset();
+		_max.reset();
+	}
+
+	/**
+	 * Renvoie un instantan de l'histogramme.
+	 */
+	public LatencySnapshot snapshot() {
+
+		// Copie des cases
+		long[] counts = new long[_counts.length()];
+		long count = 0;
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = _counts.get(i);
+			count += counts[i];
+		}
+		if (count == 0) {
+			return LatencySnapshot.EMPTY;
+		}
+
+		// Percentiles
+		long max = _max.get();
+		return new LatencySnapshot(count, _total.sum() / count,
+				percentile(counts, count, max, 50),
+				percentile(counts, count, max, 90),
+				percentile(counts, count, max, 99),
+				percentile(counts, count, max, 99.9),
+				max);
+	}
+
+	/**
+	 * Renvoie la borne haute de la case qui contient le percentile.
+	 */
+	private static long percentile(long[] counts, long count, long max, double percentile) {
+		long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(upperBound(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Renvoie la case d'une valeur positive : les 16 premires valeurs ont leur
+	 * propre case, ensuite chaque puissance de 2 a 16 cases.
+	 */
+	static int index(long value) {
+		if (value < SUB_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BITS;
+		return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) - SUB_COUNT);
+	}
+
+	/**
+	 * Renvoie la plus grande valeur range dans une case.
+	 */
+	static long upperBound(int index) {
+		if (index < SUB_COUNT) {
+			return index;
+		}
+		int shift = (index >>> SUB_BITS) - 1;
+		long lower = (long) (SUB_COUNT + (index & (SUB_COUNT - 1))) << shift;
+		return lower + (1L << shift) - 1;
+	}
+
+}
@@ -0,0 +1,74 @@
+package designpattern.observer.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Instantan d'un LatencyHistogram. Toutes les valeurs sont en nanosecondes.
+ */
+public class LatencySnapshot {
+
+	static final LatencySnapshot EMPTY = new LatencySnapshot(0, 0, 0, 0, 0, 0, 0);
+
+	private final long _count;
+
+	private final long _mean;
+
+	private final long _p50;
+
+	private final long _p90;
+
+	private final long _p99;
+
+	private final long _p999;
+
+	private final long _max;
+
+	@ConstructorProperties({ "count", "mean", "p50", "p90", "p99", "p999", "max" })
+	public LatencySnapshot(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+		_count = count;
+		_mean = mean;
+		_p50 = p50;
+		_p90 = p90;
+		_p99 = p99;
+		_p999 = p999;
+		_max = max;
+	}
+
+	/**
+	 * Nombre de valeurs enregistres.
+	 */
+	public long getCount() {
+		return _count;
+	}
+
+	public long getMean() {
+		return _mean;
+	}
+
+	public long getP50() {
+		return _p50;
+	}
+
+	public long getP90() {
+		return _p90;
+	}
+
+	public long getP99() {
+		return _p99;
+	}
+
+	public long getP999() {
+		return _p999;
+	}
+
+	public long getMax() {
+		return _max;
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + _count + " mean=" + _mean + "ns p50=" + _p50 + "ns p90=" + _p90
+				+ "ns p99=" + _p99 + "ns p99.9=" + _p999 + "ns max=" + _max + "ns";
+	}
+
+}
@@ -0,0 +1,70 @@
+package designpattern.observer.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Instantan des compteurs d'un listener, pour un event.
+ */
+public class ListenerSnapshot {
+
+	private final String _listener;
+
+	private final long _invocationCount;
+
+	private final long _haltCount;
+
+	private final long _exceptionCount;
+
+	private final LatencySnapshot _latency;
+
+	@ConstructorProperties({ "listener", "invocationCount", "haltCount", "exceptionCount", "latency" })
+	public ListenerSnapshot(String listener, long invocationCount, long haltCount, long exceptionCount, LatencySnapshot latency) {
+		_listener = listener;
+		_invocationCount = invocationCount;
+		_haltCount = haltCount;
+		_exceptionCount = exceptionCount;
+		_latency = latency;
+	}
+
+	/**
+	 * Le listener (son toString()).
+	 */
+	public String getListener() {
+		return _listener;
+	}
+
+	/**
+	 * Nombre de notifications reues.
+	 */
+	public long getInvocationCount() {
+		return _invocationCount;
+	}
+
+	/**
+	 * Nombre de fois o le listener a stopp la propagation.
+	 */
+	public long getHaltCount() {
+		return _haltCount;
+	}
+
+	/**
+	 * Nombre d'exceptions leves par le listener.
+	 */
+	public long getExceptionCount() {
+		return _exceptionCount;
+	}
+
+	/**
+	 * Dure des notifications.
+	 */
+	public LatencySnapshot getLatency() {
+		return _latency;
+	}
+
+	@Override
+	public String toString() {
+		return _listener + " : invocations=" + _invocationCount + " halts=" + _haltCount
+				+ " exceptions=" + _exceptionCount + " " + _latency;
+	}
+
+}
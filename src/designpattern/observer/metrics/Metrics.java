@@ -0,0 +1,316 @@
+package designpattern.observer.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Les mtriques de propagation d'un dispatcher, d'une EventSource ou d'un
+ * EventEmitter : par event, le nombre de propagations, d'arrts et
+ * d'exceptions et la distribution des dures, et les mmes compteurs pour
+ * chaque listener.
+ *
+ * Les mtriques sont optionnelles : sans setMetrics(), la propagation ne
+ * fait qu'un test  NULL. Avec, chaque notification cote deux appels 
+ * System.nanoTime() et quelques incrments de LongAdder, qui ne crent
+ * pas de contention entre threads.
+ *
+ * Un mme objet Metrics peut tre partag par plusieurs dispatchers : leurs
+ * compteurs sont alors cumuls par event.
+ *
+ * Les listeners sont rfrencs par les compteurs jusqu' ce qu'ils soient
+ * dconnects.
+ */
+public class Metrics implements MetricsMXBean {
+
+	/**
+	 * Le domaine JMX.
+	 */
+	public static final String DOMAIN = "designpattern.observer";
+
+	/**
+	 * Les compteurs d'un listener, ou le cumul d'un event.
+	 */
+	public static class Counters {
+
+		final LongAdder _count = new LongAdder();
+
+		final LongAdder _halts = new LongAdder();
+
+		final LongAdder _exceptions = new LongAdder();
+
+		final LatencyHistogram _latency = new LatencyHistogram();
+
+		/**
+		 * Enregistre une notification (ou une propagation).
+		 */
+		public void record(long nanos) {
+			_count.increment();
+			_latency.record(nanos);
+		}
+
+		/**
+		 * Enregistre les count lments d'un lot, qui ont dur nanos en tout.
+		 */
+		public void record(long nanos, int count) {
+			_count.add(count);
+			_latency.record(nanos / count, count);
+		}
+
+		/**
+		 * Enregistre un arrt de la propagation.
+		 */
+		public void halt() {
+			_halts.increment();
+		}
+
+		/**
+		 * Enregistre une exception.
+		 */
+		public void fail() {
+			_exceptions.increment();
+		}
+
+		void reset() {
+			_count.reset();
+			_halts.reset();
+			_exceptions.reset();
+			_latency.reset();
+		}
+
+	}
+
+	/**
+	 * Les compteurs d'un event, et ceux de ses listeners.
+	 */
+	public static final class EventCounters extends Counters {
+
+		private final ConcurrentMap<Object, Counters> _listeners = new ConcurrentHashMap<Object, Counters>();
+
+		/**
+		 * Renvoie les compteurs d'un listener de cet event.
+		 */
+		public Counters listener(Object listener) {
+			Counters counters = _listeners.get(listener);
+			if (counters == null) {
+				Counters created = new Counters();
+				counters = _listeners.putIfAbsent(listener, created);
+				if (counters == null) {
+					counters = created;
+				}
+			}
+			return counters;
+		}
+
+		/**
+		 * Oublie les compteurs d'un listener dconnect.
+		 */
+		public void forget(Object listener) {
+			_listeners.remove(listener);
+		}
+
+		/**
+		 * Enregistre une exception d'un listener : elle est compte pour le
+		 * listener et pour l'event.
+		 */
+		public void fail(Object listener) {
+			fail();
+			listener(listener).fail();
+		}
+
+		@Override
+		void reset() {
+			super.reset();
+			for (Counters counters : _listeners.values()) {
+				counters.reset();
+			}
+		}
+
+	}
+
+	/**
+	 * Tri des instantans, du plus sollicit au moins sollicit.
+	 */
+	private static final Comparator<EventSnapshot> BY_TRIGGERS =
+			(a, b) -> Long.compare(b.getTriggerCount(), a.getTriggerCount());
+
+	private static final Comparator<ListenerSnapshot> BY_INVOCATIONS =
+			(a, b) -> Long.compare(b.getInvocationCount(), a.getInvocationCount());
+
+	private final String _name;
+
+	/**
+	 * Les compteurs, par event.
+	 */
+	private final ConcurrentMap<Object, EventCounters> _events = new ConcurrentHashMap<Object, EventCounters>();
+
+	/**
+	 * Le nom sous lequel les mtriques sont enregistres dans JMX, ou NULL.
+	 */
+	private ObjectName _objectName = null;
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param name Le nom des mtriques, par exemple celui du composant observ.
+	 */
+	public Metrics(String name) {
+		if (name == null) {
+			throw new NullPointerException("name is null");
+		}
+		_name = name;
+	}
+
+	/**
+	 * Renvoie les compteurs d'un event.
+	 */
+	public EventCounters event(Object event) {
+		EventCounters counters = _events.get(event);
+		if (counters == null) {
+			EventCounters created = new EventCounters();
+			counters = _events.putIfAbsent(event, created);
+			if (counters == null) {
+				counters = created;
+			}
+		}
+		return counters;
+	}
+
+	/**
+	 * Oublie les compteurs d'un listener dconnect.
+	 *
+	 * @param event L'event, ou NULL pour tous les events.
+	 * @param listener Le listener.
+	 */
+	public void forget(Object event, Object listener) {
+		if (event == null) {
+			for (EventCounters counters : _events.values()) {
+				counters.forget(listener);
+			}
+		}
+		else {
+			EventCounters counters = _events.get(event);
+			if (counters != null) {
+				counters.forget(listener);
+			}
+		}
+	}
+
+	@Override
+	public String getName() {
+		return _name;
+	}
+
+	@Override
+	public long getTriggerCount() {
+		long total = 0;
+		for (EventCounters counters : _events.values()) {
+			total += counters._count.sum();
+		}
+		return total;
+	}
+
+	@Override
+	public long getHaltCount() {
+		long total = 0;
+		for (EventCounters counters : _events.values()) {
+			total += counters._halts.sum();
+		}
+		return total;
+	}
+
+	@Override
+	public long getExceptionCount() {
+		long total = 0;
+		for (EventCounters counters : _events.values()) {
+			total += counters._exceptions.sum();
+		}
+		return total;
+	}
+
+	@Override
+	public List<EventSnapshot> getEvents() {
+		List<EventSnapshot> list = new ArrayList<EventSnapshot>();
+		for (Map.Entry<Object, EventCounters> entry : _events.entrySet()) {
+			list.add(snapshot(entry.getKey(), entry.getValue()));
+		}
+		Collections.sort(list, BY_TRIGGERS);
+		return list;
+	}
+
+	@Override
+	public EventSnapshot getEvent(String event) {
+		for (Map.Entry<Object, EventCounters> entry : _events.entrySet()) {
+			if (String.valueOf(entry.getKey()).equals(event)) {
+				return snapshot(entry.getKey(), entry.getValue());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Renvoie les compteurs d'un event, ou NULL s'il n'a jamais t propag.
+	 */
+	public EventSnapshot getEvent(Object event) {
+		EventCounters counters = _events.get(event);
+		return counters == null ? null : snapshot(event, counters);
+	}
+
+	private static EventSnapshot snapshot(Object event, EventCounters counters) {
+		List<ListenerSnapshot> listeners = new ArrayList<ListenerSnapshot>();
+		for (Map.Entry<Object, Counters> entry : counters._listeners.entrySet()) {
+			Counters c = entry.getValue();
+			listeners.add(new ListenerSnapshot(String.valueOf(entry.getKey()), c._count.sum(),
+					c._halts.sum(), c._exceptions.sum(), c._latency.snapshot()));
+		}
+		Collections.sort(listeners, BY_INVOCATIONS);
+		return new EventSnapshot(String.valueOf(event), counters._count.sum(), counters._halts.sum(),
+				counters._exceptions.sum(), counters._latency.snapshot(), listeners);
+	}
+
+	@Override
+	public void reset() {
+		for (EventCounters counters : _events.values()) {
+			counters.reset();
+		}
+	}
+
+	/**
+	 * Enregistre les mtriques dans le MBeanServer de la plateforme, sous le
+	 * nom designpattern.observer:type=Metrics,name=&lt;name&gt;.
+	 */
+	public synchronized void register() throws JMException {
+		if (_objectName != null) {
+			return;
+		}
+		ObjectName objectName = new ObjectName(DOMAIN + ":type=Metrics,name=" + ObjectName.quote(_name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		_objectName = objectName;
+	}
+
+	/**
+	 * Retire les mtriques du MBeanServer.
+	 */
+	public synchronized void unregister() throws JMException {
+		if (_objectName == null) {
+			return;
+		}
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(_objectName);
+		_objectName = null;
+	}
+
+	@Override
+	public String toString() {
+		return "Metrics[" + _name + "]";
+	}
+
+}
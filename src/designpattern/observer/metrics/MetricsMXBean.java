@@ -0,0 +1,49 @@
+package designpattern.observer.metrics;
+
+import java.util.List;
+
+/**
+ * L'interface JMX des mtriques de propagation.
+ *
+ * @see Metrics#register()
+ */
+public interface MetricsMXBean {
+
+	/**
+	 * Le nom des mtriques (utilis dans l'ObjectName).
+	 */
+	public String getName();
+
+	/**
+	 * Nombre total de propagations, tous events confondus.
+	 */
+	public long getTriggerCount();
+
+	/**
+	 * Nombre total de propagations stoppes par un listener.
+	 */
+	public long getHaltCount();
+
+	/**
+	 * Nombre total d'exceptions leves par les listeners.
+	 */
+	public long getExceptionCount();
+
+	/**
+	 * Les compteurs de chaque event, du plus propag au moins propag.
+	 */
+	public List<EventSnapshot> getEvents();
+
+	/**
+	 * Les compteurs d'un event, ou NULL s'il n'a jamais t propag.
+	 *
+	 * @param event Le toString() de l'event.
+	 */
+	public EventSnapshot getEvent(String event);
+
+	/**
+	 * Remet tous les compteurs  zro.
+	 */
+	public void reset();
+
+}
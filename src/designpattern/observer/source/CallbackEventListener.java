@@ -1,92 +1,111 @@
 package designpattern.observer.source;
 
-import java.lang.reflect.Method;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.logging.Level;
 
+import designpattern.observer.trace.Trace;
+
 public final class CallbackEventListener<L extends IEventListener> implements IEventCallback<L> {
 
 	private L _listener;
 	private String _interfaceName;
+	
+	/**
+	 * La référence faible vers le listener, si la callback a été créée par
+	 * EventSource.bindWeak() (_listener est alors NULL).
+	 */
+	private ListenerReference<L> _reference;
 
 	public CallbackEventListener(L listener, String interfaceName) {
 		_listener = listener;
 		_interfaceName = interfaceName;
 	}
 	
+	/**
+	 * Constructeur d'une callback qui ne retient pas le listener. Quand il
+	 * est libéré, la référence est placée dans la file donnée.
+	 */
+	CallbackEventListener(L listener, String interfaceName, ReferenceQueue<Object> queue) {
+		_reference = new ListenerReference<L>(listener, queue, this);
+		_interfaceName = interfaceName;
+	}
+	
+	/**
+	 * Référence faible vers le listener, qui connaît sa callback.
+	 */
+	static final class ListenerReference<L extends IEventListener> extends WeakReference<L> {
+		
+		final CallbackEventListener<L> callback;
+		
+		ListenerReference(L listener, ReferenceQueue<Object> queue, CallbackEventListener<L> callback) {
+			super(listener, queue);
+			this.callback = callback;
+		}
+		
+	}
+	
 	@Override
 	public boolean notifyEvent(EventSource<L> source, String event, Object... args)
 		throws Exception {
 		
-		// Fetch methods
-		for (Method m : _listener.getClass().getMethods()) {
+		// Listener faible déjà libéré
+		L listener = getListener();
+		if (listener == null) {
+			return true;
+		}
+		
+		// Méthodes de l'interface ayant le nom de l'event (résolues une seule fois)
+		MethodInvoker[] invokers = MethodInvoker.forName(listener.getClass(), event);
+		
+		// Recherche de la surcharge qui accepte ces arguments
+		for (MethodInvoker invoker : invokers) {
 			
-			// Name mismatch
-			if (!m.getName().equals(event)) {
+			// Arguments mismatch
+			if (!invoker.accepts(args, true)) {
 				continue;
 			}
 			
 			// Log
-			if (EventSource.LOGGER.isLoggable(Level.FINE)) {
-				if (!toString().contains("DebugTreeViewController")) {
-					EventSource.LOGGER.log(
-							Level.FINE,
-							"NOTIFY event " + event
-							+ " --> TO " + toString());
-				}
+			if (Trace.enabled()) {
+				Trace.record(Trace.Kind.NOTIFY, source, event, this, args, 0);
 			}
 			
-			try {
-				
-				// Pour permetre l'invocation d'une méthode dans une classe anonyme
-				m.setAccessible(true);
-				
-				// Si la méthode renvoie une boolean, on s'en sert pour le retour
-				if (m.getReturnType().toString().equals("boolean") || m.getReturnType() == Boolean.class) {
-					return (Boolean) m.invoke(_listener, args);
-				}
-				// Sinon on fait juste l'invocation, et on renvera TRUE à la fin
-				else {
-					m.invoke(_listener, args);
-					return true;
-				}
-				
-			}
+			// Invocation directe
+			return invoker.invoke(listener, args);
 			
-			// Cette exception va se produire si plusieurs méthodes ont le même nom,
-			// elles vont toutes être appelée les unes après les autres jusqu'à la bonne
-			// si elle existe.
-			catch (IllegalArgumentException e) {
-				if (EventSource.LOGGER.isLoggable(Level.WARNING)) {
-					StringBuilder sb = new StringBuilder();
-					sb.append(e.getClass().getSimpleName());
-					sb.append(" - ");
-					sb.append(e.getMessage());
-					sb.append("\nEvent: ");
-					sb.append(event);
-					sb.append("(");
-					int i = 0;
-					for (Object arg : args) {
-						if (i++ > 0) sb.append(", ");
-						sb.append(arg == null ? "NULL" : arg.getClass().getSimpleName());
-					}
-					sb.append(")");
-					sb.append("\nSource: ");
-					sb.append(source.toString());
-					sb.append("\nCallback: ");
-					sb.append(this);
-					sb.append("\n          ");
-					sb.append(getMethodName(event));
-					sb.append("(");
-					i = 0;
-					for (Class<?> type : m.getParameterTypes()) {
-						if (i++ > 0) sb.append(", ");
-						sb.append(args == null ? "NULL" : type.getSimpleName());
-					}
-					sb.append(")");
-					EventSource.LOGGER.log(Level.WARNING, sb.toString());
+		}
+		
+		// Plusieurs méthodes ont peut-être ce nom, mais aucune n'accepte
+		// les arguments de l'event.
+		if (invokers.length > 0 && EventSource.LOGGER.isLoggable(Level.WARNING)) {
+			for (MethodInvoker invoker : invokers) {
+				StringBuilder sb = new StringBuilder();
+				sb.append("Arguments mismatch");
+				sb.append("\nEvent: ");
+				sb.append(event);
+				sb.append("(");
+				int i = 0;
+				for (Object arg : args) {
+					if (i++ > 0) sb.append(", ");
+					sb.append(arg == null ? "NULL" : arg.getClass().getSimpleName());
+				}
+				sb.append(")");
+				sb.append("\nSource: ");
+				sb.append(source.toString());
+				sb.append("\nCallback: ");
+				sb.append(this);
+				sb.append("\n          ");
+				sb.append(getMethodName(event));
+				sb.append("(");
+				i = 0;
+				for (Class<?> type : invoker.getMethod().getParameterTypes()) {
+					if (i++ > 0) sb.append(", ");
+					sb.append(type.getSimpleName());
 				}
+				sb.append(")");
+				EventSource.LOGGER.log(Level.WARNING, sb.toString());
 			}
-			
 		}
 		
 		// Si on arrive ici, c'est qu'on n'a pas trouvé de méthode
@@ -97,11 +116,14 @@ public final class CallbackEventListener<L extends IEventListener> implements IE
 
 	@Override
 	public String toString() {
-		return "Listener " + _interfaceName + " : " + _listener;
+		return "Listener " + _interfaceName + " : " + getListener();
 	}
 
+	/**
+	 * Renvoie le listener, ou NULL si c'est un listener faible qui a été libéré.
+	 */
 	public L getListener() {
-		return _listener;
+		return _reference != null ? _reference.get() : _listener;
 	}
 
 	@Override
@@ -111,7 +133,13 @@ public final class CallbackEventListener<L extends IEventListener> implements IE
 
 	@Override
 	public Object getTargetObject() {
-		return _listener;
+		return getListener();
+	}
+
+	@Override
+	public String getEventName() {
+		// Tous les events
+		return null;
 	}
 	
 }
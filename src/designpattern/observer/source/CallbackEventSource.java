@@ -42,4 +42,10 @@ public final class CallbackEventSource<L extends IEventListener> implements IEve
 		return null;
 	}
 
+	@Override
+	public String getEventName() {
+		// Tous les events
+		return null;
+	}
+
 }
@@ -1,8 +1,7 @@
 package designpattern.observer.source;
 
-import java.util.logging.Level;
-
 import designpattern.observer.dispatcher.IListener;
+import designpattern.observer.trace.Trace;
 
 public final class CallbackMultipleEventIListener<L extends IEventListener> implements IEventCallback<L> {
 
@@ -16,13 +15,8 @@ public final class CallbackMultipleEventIListener<L extends IEventListener> impl
 	public boolean notifyEvent(EventSource<L> source, String event, Object... args) {
 		
 		// Log
-		if (EventSource.LOGGER.isLoggable(Level.FINE)) {
-			if (!toString().contains("DebugTreeViewController")) {
-				EventSource.LOGGER.log(
-						Level.FINE,
-						"NOTIFY event " + event
-						+ " --> TO " + toString());
-			}
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.NOTIFY, source, event, this, args, 0);
 		}
 		
 		// Propagation au listener
@@ -49,4 +43,10 @@ public final class CallbackMultipleEventIListener<L extends IEventListener> impl
 		return _listener;
 	}
 
+	@Override
+	public String getEventName() {
+		// Tous les events
+		return null;
+	}
+
 }
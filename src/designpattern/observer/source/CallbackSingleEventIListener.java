@@ -1,8 +1,7 @@
 package designpattern.observer.source;
 
-import java.util.logging.Level;
-
 import designpattern.observer.dispatcher.IListener;
+import designpattern.observer.trace.Trace;
 
 public final class CallbackSingleEventIListener<L extends IEventListener> implements IEventCallback<L> {
 
@@ -23,13 +22,8 @@ public final class CallbackSingleEventIListener<L extends IEventListener> implem
 		}
 		
 		// Log
-		if (EventSource.LOGGER.isLoggable(Level.FINE)) {
-			if (!toString().contains("DebugTreeViewController")) {
-				EventSource.LOGGER.log(
-						Level.FINE,
-						"NOTIFY event " + event
-						+ " --> TO " + toString());
-			}
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.NOTIFY, source, event, this, args, 0);
 		}
 		
 		return _listener.notifyEvent(event, args);
@@ -55,4 +49,9 @@ public final class CallbackSingleEventIListener<L extends IEventListener> implem
 		return _listener;
 	}
 
+	@Override
+	public String getEventName() {
+		return _eventName;
+	}
+
 }
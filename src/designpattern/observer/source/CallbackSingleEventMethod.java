@@ -1,18 +1,25 @@
 package designpattern.observer.source;
 
-import java.lang.reflect.Method;
 import java.util.logging.Level;
 
+import designpattern.observer.trace.Trace;
+
 public final class CallbackSingleEventMethod<L extends IEventListener> implements IEventCallback<L> {
 
 	private String _eventName;
 	private Object _target;
 	private String _targetMethodName;
+	
+	/**
+	 * Les méthodes de la cible ayant ce nom, résolues au bind.
+	 */
+	private MethodInvoker[] _invokers;
 
 	public CallbackSingleEventMethod(String eventName, Object target, String targetMethodName) {
 		_eventName = eventName;
 		_target = target;
 		_targetMethodName = targetMethodName;
+		_invokers = MethodInvoker.forName(target.getClass(), targetMethodName);
 	}
 
 	@Override
@@ -23,88 +30,66 @@ public final class CallbackSingleEventMethod<L extends IEventListener> implement
 			return true;
 		}
 		
+		// Aucune méthode avec ce nom
+		if (_invokers.length == 0) {
+			return true;
+		}
+		
 		// Fetch methods
-		for (Method m : _target.getClass().getMethods()) {
+		for (MethodInvoker invoker : _invokers) {
 			
-			// Name mismatch
-			if (!m.getName().equals(_targetMethodName)) {
+			// Arguments mismatch : les arguments en trop sont ignorés par l'invoker,
+			// il n'y a donc pas de copie du tableau à faire
+			if (!invoker.accepts(args, false)) {
 				continue;
 			}
 			
 			// Log
-			if (EventSource.LOGGER.isLoggable(Level.FINE)) {
-				if (!toString().contains("DebugTreeViewController")) {
-					EventSource.LOGGER.log(
-							Level.FINE,
-							"NOTIFY event " + event
-							+ " --> TO " + toString());
-				}
-			}
-			
-			// On adapte le nombre d'argument à la méthode
-			int length = m.getParameterTypes().length;
-			if (length != args.length) {
-				Object[] copy = new Object[length];
-				for (int i = 0; i < length; i++) {
-					copy[i] = args[i];
-				}
-				args = copy;
-				copy = null;
+			if (Trace.enabled()) {
+				Trace.record(Trace.Kind.NOTIFY, source, event, this, args, 0);
 			}
 			
-			try {
-				
-				// Pour permetre l'invocation d'une méthode dans une classe anonyme
-				m.setAccessible(true);
-				
-				// Si la méthode renvoie une boolean, on s'en sert pour le retour
-				if (m.getReturnType().toString().equals("boolean") || m.getReturnType() == Boolean.class) {
-					return (Boolean) m.invoke(_target, args);
-				}
-				// Sinon on fait juste l'invocation, et on renvera TRUE à la fin
-				else {
-					m.invoke(_target, args);
-					return true;
-				}
-				
-			}
+			// Invocation directe
+			return invoker.invoke(_target, args);
 			
-			// Invoked method arguments error
-			catch (IllegalArgumentException e) {
-				System.err.println("Method broadcast exception: '" + e.getMessage() + "' for event " + event
-						+ " to " + _target.getClass().getSimpleName() + "." + _targetMethodName + "()");
+		}
+		
+		// Plusieurs méthodes ont peut-être ce nom, mais aucune n'accepte
+		// les arguments de l'event : on les signale toutes, puis on lève
+		// l'erreur comme le faisait Method.invoke()
+		if (EventSource.LOGGER.isLoggable(Level.WARNING)) {
+			for (MethodInvoker invoker : _invokers) {
 				StringBuilder sb = new StringBuilder();
-				sb.append("  Event args: ");
-				for (int i = 0, l = args.length; i < l; i++) {
-					if (i > 0) sb.append(", ");
-					sb.append(args[i] == null ? "NULL" : args[i].getClass().getSimpleName());
+				sb.append("Arguments mismatch");
+				sb.append("\nEvent: ");
+				sb.append(event);
+				sb.append("(");
+				int i = 0;
+				for (Object arg : args) {
+					if (i++ > 0) sb.append(", ");
+					sb.append(arg == null ? "NULL" : arg.getClass().getSimpleName());
 				}
-				System.err.println(sb.toString());
-				sb = new StringBuilder();
-				sb.append("  Method:     ");
+				sb.append(")");
+				sb.append("\nSource: ");
+				sb.append(source.toString());
+				sb.append("\nCallback: ");
+				sb.append(this);
+				sb.append("\n          ");
 				sb.append(_target.getClass().getSimpleName());
 				sb.append('.');
 				sb.append(_targetMethodName);
-				sb.append('(');
-				{
-					int i = 0;
-					for (Class<?> type : m.getParameterTypes()) {
-						if (i++ > 0) sb.append(", ");
-						sb.append(type.getSimpleName());
-					}
+				sb.append("(");
+				i = 0;
+				for (Class<?> type : invoker.getMethod().getParameterTypes()) {
+					if (i++ > 0) sb.append(", ");
+					sb.append(type.getSimpleName());
 				}
-				sb.append(')');
-				if (e.getCause() != null) {
-					sb.append("\n  Cause: ");
-					sb.append(e.getCause().getMessage());
-				}
-				System.err.println(sb.toString());
-				throw e;
+				sb.append(")");
+				EventSource.LOGGER.log(Level.WARNING, sb.toString());
 			}
-			
 		}
-		
-		return true;
+		throw new IllegalArgumentException("Arguments mismatch for event " + event
+				+ " to " + _target.getClass().getSimpleName() + "." + _targetMethodName + "()");
 	
 	}
 	
@@ -119,6 +104,7 @@ public final class CallbackSingleEventMethod<L extends IEventListener> implement
 		return _targetMethodName;
 	}
 
+	@Override
 	public String getEventName() {
 		return _eventName;
 	}
@@ -0,0 +1,79 @@
+package designpattern.observer.source;
+
+import designpattern.observer.dispatcher.ITypedListener;
+import designpattern.observer.dispatcher.TypedDispatch;
+import designpattern.observer.trace.Trace;
+
+public final class CallbackSingleEventTyped<L extends IEventListener> implements IEventCallback<L> {
+
+	private String _eventName;
+	private ITypedListener<String> _listener;
+
+	public CallbackSingleEventTyped(String eventName, ITypedListener<String> listener) {
+		_eventName = eventName;
+		_listener = listener;
+	}
+
+	@Override
+	public boolean notifyEvent(EventSource<L> source, String event, Object... args) {
+		
+		// Filtrage
+		if (!_eventName.equals(event)) {
+			return true;
+		}
+		
+		// Log
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.NOTIFY, source, event, this, args, 0);
+		}
+		
+		return TypedDispatch.notify(_listener, event, args);
+		
+	}
+	
+	/**
+	 * Notification avec les arguments  plat, sans tableau.
+	 * 
+	 * @see TypedDispatch
+	 */
+	public boolean notifyEvent(String event, int kind, Object a, Object b, Object c, Object d, long l, double v) {
+		
+		// Filtrage
+		if (!_eventName.equals(event)) {
+			return true;
+		}
+		
+		// Log
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.NOTIFY, null, event, this, TypedDispatch.toArray(kind, a, b, c, d, l, v), 0);
+		}
+		
+		return TypedDispatch.notify(_listener, event, kind, a, b, c, d, l, v);
+		
+	}
+	
+	@Override
+	public String toString() {
+		return "ITypedListener '" + _listener.getClass() + "' for event '"+_eventName+"' only";
+	}
+
+	public ITypedListener<String> getListener() {
+		return _listener;
+	}
+
+	@Override
+	public String getMethodName(String eventName) {
+		return "notifyEvent";
+	}
+
+	@Override
+	public Object getTargetObject() {
+		return _listener;
+	}
+
+	@Override
+	public String getEventName() {
+		return _eventName;
+	}
+
+}
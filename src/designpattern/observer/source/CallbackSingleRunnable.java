@@ -1,6 +1,6 @@
 package designpattern.observer.source;
 
-import java.util.logging.Level;
+import designpattern.observer.trace.Trace;
 
 public final class CallbackSingleRunnable<L extends IEventListener> implements IEventCallback<L> {
 
@@ -23,13 +23,8 @@ public final class CallbackSingleRunnable<L extends IEventListener> implements I
 			return true;
 		}
 		// Log
-		if (EventSource.LOGGER.isLoggable(Level.FINE)) {
-			if (!toString().contains("DebugTreeViewController")) {
-				EventSource.LOGGER.log(
-						Level.FINE,
-						"NOTIFY event " + eventName
-						+ " --> TO " + _runnable);
-			}
+		if (Trace.enabled()) {
+			Trace.record(Trace.Kind.NOTIFY, source, eventName, this, args, 0);
 		}
 		_runnable.run();
 		return true;
@@ -39,6 +34,7 @@ public final class CallbackSingleRunnable<L extends IEventListener> implements I
 		return _runnable;
 	}
 	
+	@Override
 	public String getEventName() {
 		return _eventName;
 	}
@@ -1,11 +1,21 @@
 package designpattern.observer.source;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.logging.Level;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import designpattern.observer.dispatcher.IListener;
+import designpattern.observer.dispatcher.ISubscription;
+import designpattern.observer.dispatcher.ITypedListener;
+import designpattern.observer.dispatcher.TypedDispatch;
+import designpattern.observer.metrics.Metrics;
+import designpattern.observer.trace.Trace;
 
 /**
  * @param <L> L'interface des listeners pour cette source.
@@ -17,10 +27,43 @@ public class EventSource<L extends IEventListener> {
 	 */
 	public static final Logger LOGGER = Logger.getLogger("Events");
 	
+	/**
+	 * Tableau vide, partag.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final IEventCallback[] EMPTY = new IEventCallback[0];
+	
+	/**
+	 * Le tableau vide partag, typ pour cette source.
+	 */
+	@SuppressWarnings("unchecked")
+	private IEventCallback<L>[] empty() {
+		return EMPTY;
+	}
+	
 	/**
 	 * Liste des listeners.
+	 * 
+	 * Les tableaux et l'index ci-dessous sont immuables : ils sont remplacs
+	 * (en tant synchronis sur la source)  chaque bind ou unbind, ce qui permet
+	 * aux triggers de les parcourir sans verrou et sans copie.
+	 */
+	private volatile IEventCallback<L>[] _listeners = empty();
+	
+	/**
+	 * Index des listeners par nom d'event.
+	 * 
+	 * Chaque tableau contient, dans l'ordre d'inscription, les listeners associs
+	 *  cet event en particulier et les listeners qui coutent tous les events.
+	 * Un trigger ne parcourt ainsi que les listeners rellement concerns.
+	 */
+	private volatile Map<String, IEventCallback<L>[]> _index = Collections.emptyMap();
+	
+	/**
+	 * Les listeners qui coutent tous les events, utiliss pour les events
+	 * qui n'ont pas d'entre dans l'index.
 	 */
-	private List<IEventCallback<L>> _listeners = new ArrayList<IEventCallback<L>>();
+	private volatile IEventCallback<L>[] _wildcards = empty();
 	
 	/**
 	 * Source d'event interne pour signaler les ajouts ou suppressions de listeners,
@@ -46,6 +89,17 @@ public class EventSource<L extends IEventListener> {
 	 */
 	private boolean enabled = true;
 	
+	/**
+	 * Les mtriques de propagation, ou NULL (par dfaut) pour ne rien mesurer.
+	 */
+	private volatile Metrics _metrics = null;
+	
+	/**
+	 * Les rfrences des listeners connects par bindWeak() que le GC a
+	 * librs, en attente de retrait. NULL tant que bindWeak() n'a pas servi.
+	 */
+	private volatile ReferenceQueue<Object> _cleared = null;
+	
 	public EventSource() {
 		this(IAnonymousListener.class, null);
 	}
@@ -97,12 +151,48 @@ public class EventSource<L extends IEventListener> {
 	 * 
 	 * @param listener Le listener  inscrire.
 	 */
-	@SuppressWarnings("unchecked")
 	public <M extends IEventListener> EventSource<L> bind(M listener) {
+		subscribe(listener, false);
+		return this;
+	}
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription, qui retire ce listener sans
+	 * parcourir les autres. Chaque bind() a son subscribe().
+	 * 
+	 * @param listener Le listener  inscrire.
+	 * @return L'inscription du listener.
+	 */
+	public <M extends IEventListener> ISubscription subscribe(M listener) {
+		return subscribe(listener, false);
+	}
+	
+	/**
+	 * Enregistre un listener qui coute tous les events de cette source, sans
+	 * le retenir : la source ne garde qu'une rfrence faible, le listener
+	 * peut donc tre libr par le GC sans avoir t dsinscrit. Il est alors
+	 * retir lors d'une propagation suivante.
+	 * 
+	 * @param listener Le listener  inscrire. Il doit tre retenu ailleurs.
+	 */
+	public <M extends IEventListener> EventSource<L> bindWeak(M listener) {
+		subscribe(listener, true);
+		return this;
+	}
+	
+	/**
+	 * Comme bindWeak(), mais renvoie l'inscription.
+	 */
+	public <M extends IEventListener> ISubscription subscribeWeak(M listener) {
+		return subscribe(listener, true);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <M extends IEventListener> ISubscription subscribe(M listener, boolean weak) {
 		
 		// Dsactiv
 		if (!enabled) {
-			return this;
+			return ISubscription.NONE;
 		}
 		
 		// Mfiance...
@@ -111,21 +201,18 @@ public class EventSource<L extends IEventListener> {
 		}
 		
 		// Log
-		if (LOGGER.isLoggable(Level.FINE) && !getListenerClass().getSimpleName().equals("SourceListener")) {
-			LOGGER.log(Level.FINE, "BIND event listener "
-					+ listener.getClass().getSimpleName() + " --> TO "
-					+ toString());
+		if (Trace.enabled() && getListenerClass() != SourceListener.class) {
+			Trace.record(Trace.Kind.BIND, this, null, listener, null, 0);
 		}
 		
 		// On fabrique un CallbackEventListener
-		IEventCallback<M> callback = new CallbackEventListener<M>(
-				listener,
-				getListenerClass().getSimpleName()
-		);
+		IEventCallback<M> callback = weak
+				? new CallbackEventListener<M>(listener, getListenerClass().getSimpleName(), cleared())
+				: new CallbackEventListener<M>(listener, getListenerClass().getSimpleName());
 		
 		// Ajout dans la liste des listeners
 		synchronized (this) {
-			_listeners.add((IEventCallback<L>) callback);
+			addCallback((IEventCallback<L>) callback);
 		}
 		
 		// Propagation aux events internes
@@ -133,7 +220,7 @@ public class EventSource<L extends IEventListener> {
 			_sourceEvents.trigger("onBind", callback, this);
 		}
 		
-		return this;
+		return subscription((IEventCallback<L>) callback);
 		
 	}
 	
@@ -145,10 +232,18 @@ public class EventSource<L extends IEventListener> {
 	 * @param targetMethodName Le nom de la mthode  appeler.
 	 */
 	public EventSource<L> bind(String eventName, Object target, String targetMethodName) {
+		subscribe(eventName, target, targetMethodName);
+		return this;
+	}
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribe(String eventName, Object target, String targetMethodName) {
 		
 		// Dsactiv
 		if (!enabled) {
-			return this;
+			return ISubscription.NONE;
 		}
 		
 		// Mfiance
@@ -157,10 +252,8 @@ public class EventSource<L extends IEventListener> {
 		}
 		
 		// Log
-		if (LOGGER.isLoggable(Level.FINE) && !getListenerClass().getSimpleName().equals("SourceListener")) {
-			LOGGER.log(Level.FINE, "BIND method "
-					+ target.getClass().getSimpleName() + "." + targetMethodName + "() --> TO "
-					+ toString() + "." + eventName);
+		if (Trace.enabled() && getListenerClass() != SourceListener.class) {
+			Trace.record(Trace.Kind.BIND, this, eventName, target, null, 0);
 		}
 		
 		// On fabrique un CallbackSingleEventMethod
@@ -168,7 +261,7 @@ public class EventSource<L extends IEventListener> {
 		
 		// Ajout dans la liste des listeners
 		synchronized (this) {
-			_listeners.add(callback);
+			addCallback(callback);
 		}
 		
 		// Propagation aux events internes
@@ -176,15 +269,23 @@ public class EventSource<L extends IEventListener> {
 			_sourceEvents.trigger("onBind", callback, this);
 		}
 		
-		return this;
+		return subscription(callback);
 		
 	}
 	
 	public EventSource<L> bind(String eventName, Runnable target) {
+		subscribe(eventName, target);
+		return this;
+	}
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribe(String eventName, Runnable target) {
 		
 		// Dsactiv
 		if (!enabled) {
-			return this;
+			return ISubscription.NONE;
 		}
 		
 		// Mfiance
@@ -193,10 +294,8 @@ public class EventSource<L extends IEventListener> {
 		}
 		
 		// Log
-		if (LOGGER.isLoggable(Level.FINE) && !getListenerClass().getSimpleName().equals("SourceListener")) {
-			LOGGER.log(Level.FINE, "BIND runnable "
-					+ target + " --> TO "
-					+ toString() + "." + eventName);
+		if (Trace.enabled() && getListenerClass() != SourceListener.class) {
+			Trace.record(Trace.Kind.BIND, this, eventName, target, null, 0);
 		}
 		
 		// On fabrique un CallbackSingleEventMethod
@@ -204,7 +303,7 @@ public class EventSource<L extends IEventListener> {
 		
 		// Ajout dans la liste des listeners
 		synchronized (this) {
-			_listeners.add(callback);
+			addCallback(callback);
 		}
 		
 		// Propagation aux events internes
@@ -212,7 +311,7 @@ public class EventSource<L extends IEventListener> {
 			_sourceEvents.trigger("onBind", callback, this);
 		}
 		
-		return this;
+		return subscription(callback);
 		
 	}
 	
@@ -222,10 +321,18 @@ public class EventSource<L extends IEventListener> {
 	 * @param listener Le listener  associer.
 	 */
 	public EventSource<L> bindAll(IListener<String> listener) {
+		subscribeAll(listener);
+		return this;
+	}
+	
+	/**
+	 * Comme bindAll(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribeAll(IListener<String> listener) {
 		
 		// Dsactiv
 		if (!enabled) {
-			return this;
+			return ISubscription.NONE;
 		}
 		
 		// Mfiance...
@@ -234,10 +341,8 @@ public class EventSource<L extends IEventListener> {
 		}
 		
 		// Log
-		if (LOGGER.isLoggable(Level.FINE) && !getListenerClass().getSimpleName().equals("SourceListener")) {
-			LOGGER.log(Level.FINE, "BIND (IListener) "
-					+ listener.getClass().getSimpleName() + " --> TO "
-					+ toString() + ".*");
+		if (Trace.enabled() && getListenerClass() != SourceListener.class) {
+			Trace.record(Trace.Kind.BIND, this, null, listener, null, 0);
 		}
 		
 		// On fabrique un CallbackMultipleEventIListener
@@ -245,7 +350,7 @@ public class EventSource<L extends IEventListener> {
 		
 		// Ajout dans la liste des listeners
 		synchronized (this) {
-			_listeners.add(callback);
+			addCallback(callback);
 		}
 		
 		// Propagation aux events internes
@@ -253,7 +358,7 @@ public class EventSource<L extends IEventListener> {
 			_sourceEvents.trigger("onBind", callback, this);
 		}
 		
-		return this;
+		return subscription(callback);
 	}
 	
 	/**
@@ -263,10 +368,18 @@ public class EventSource<L extends IEventListener> {
 	 * @param listener L'instance du listener.
 	 */
 	public EventSource<L> bind(String eventName, IListener<String> listener) {
+		subscribe(eventName, listener);
+		return this;
+	}
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribe(String eventName, IListener<String> listener) {
 		
 		// Dsactiv
 		if (!enabled) {
-			return this;
+			return ISubscription.NONE;
 		}
 		
 		// Mfiance...
@@ -275,10 +388,8 @@ public class EventSource<L extends IEventListener> {
 		}
 		
 		// Log
-		if (LOGGER.isLoggable(Level.FINE) && !getListenerClass().getSimpleName().equals("SourceListener")) {
-			LOGGER.log(Level.FINE, "BIND listener "
-					+ listener.getClass() + " --> TO "
-					+ toString() + "." + eventName);
+		if (Trace.enabled() && getListenerClass() != SourceListener.class) {
+			Trace.record(Trace.Kind.BIND, this, eventName, listener, null, 0);
 		}
 		
 		// On fabrique un CallbackSingleEventIListener
@@ -286,7 +397,7 @@ public class EventSource<L extends IEventListener> {
 		
 		// Ajout dans la liste des listeners
 		synchronized (this) {
-			_listeners.add(callback);
+			addCallback(callback);
 		}
 		
 		// Propagation aux events internes
@@ -294,10 +405,59 @@ public class EventSource<L extends IEventListener> {
 			_sourceEvents.trigger("onBind", callback, this);
 		}
 		
-		return this;
+		return subscription(callback);
 		
 	}
 
+	/**
+	 * Associer un listener typ  un event en particulier. Avec les trigger()
+	 *  nombre d'arguments fixe, l'event est propag sans tableau d'arguments.
+	 * 
+	 * @param eventName Le nom de l'event.
+	 * @param listener L'instance du listener.
+	 */
+	public EventSource<L> bind(String eventName, ITypedListener<String> listener) {
+		subscribe(eventName, listener);
+		return this;
+	}
+	
+	/**
+	 * Comme bind(), mais renvoie l'inscription.
+	 */
+	public ISubscription subscribe(String eventName, ITypedListener<String> listener) {
+		
+		// Dsactiv
+		if (!enabled) {
+			return ISubscription.NONE;
+		}
+		
+		// Mfiance...
+		if (eventName == null || listener == null) {
+			throw new NullPointerException("");
+		}
+		
+		// Log
+		if (Trace.enabled() && getListenerClass() != SourceListener.class) {
+			Trace.record(Trace.Kind.BIND, this, eventName, listener, null, 0);
+		}
+		
+		// On fabrique un CallbackSingleEventTyped
+		IEventCallback<L> callback = new CallbackSingleEventTyped<L>(eventName, listener);
+		
+		// Ajout dans la liste des listeners
+		synchronized (this) {
+			addCallback(callback);
+		}
+		
+		// Propagation aux events internes
+		if (_sourceEvents != null) {
+			_sourceEvents.trigger("onBind", callback, this);
+		}
+		
+		return subscription(callback);
+		
+	}
+	
 	/**
 	 * Alias de redirect()
 	 */
@@ -312,10 +472,19 @@ public class EventSource<L extends IEventListener> {
 	 * @param target La source qui ecoute les events de celle-ci.
 	 */
 	public void redirect(EventSource<? extends IEventListener> target) {
+		subscribe(target);
+	}
+	
+	/**
+	 * Comme redirect(), mais renvoie l'inscription, qui arrte la redirection.
+	 * 
+	 * @param target La source qui ecoute les events de celle-ci.
+	 */
+	public ISubscription subscribe(EventSource<? extends IEventListener> target) {
 		
 		// Dsactiv
 		if (!enabled) {
-			return;
+			return ISubscription.NONE;
 		}
 		
 		// Mfiance...
@@ -329,10 +498,8 @@ public class EventSource<L extends IEventListener> {
 		}
 		
 		// Log
-		if (LOGGER.isLoggable(Level.FINE) && !getListenerClass().getSimpleName().equals("SourceListener")) {
-			LOGGER.log(Level.FINE, "BIND source "
-					+ target + " --> TO "
-					+ toString() + ".*");
+		if (Trace.enabled() && getListenerClass() != SourceListener.class) {
+			Trace.record(Trace.Kind.BIND, this, null, target, null, 0);
 		}
 		
 		// On fabrique un CallbackEventSource
@@ -340,7 +507,7 @@ public class EventSource<L extends IEventListener> {
 		
 		// Ajout dans la liste des listeners
 		synchronized (this) {
-			_listeners.add(callback);
+			addCallback(callback);
 		}
 		
 		// Propagation aux events internes
@@ -348,6 +515,44 @@ public class EventSource<L extends IEventListener> {
 			_sourceEvents.trigger("onBind", callback, this);
 		}
 		
+		return subscription(callback);
+		
+	}
+	
+	/**
+	 * Renvoie l'inscription d'une callback, qui la retire sans parcourir les
+	 * listeners  la recherche de son type et de sa cible.
+	 */
+	private ISubscription subscription(final IEventCallback<L> callback) {
+		return new ISubscription() {
+			@Override
+			public void close() {
+				unsubscribe(callback);
+			}
+			@Override
+			public String toString() {
+				return "Subscription[" + callback + "]";
+			}
+		};
+	}
+	
+	/**
+	 * Retire une callback, si elle est encore inscrite.
+	 */
+	private void unsubscribe(IEventCallback<L> callback) {
+		
+		synchronized (this) {
+			// Source dtruite, ou callback dj retire
+			if (_listeners == null || !removeCallback(callback)) {
+				return;
+			}
+		}
+		
+		// Propagation aux events internes
+		if (_sourceEvents != null) {
+			_sourceEvents.trigger("onUnbind", callback, this);
+		}
+		
 	}
 	
 	/**
@@ -362,8 +567,18 @@ public class EventSource<L extends IEventListener> {
 				return;
 			}
 			
+			// Les compteurs ne doivent pas retenir les callbacks
+			Metrics metrics = _metrics;
+			if (metrics != null) {
+				for (IEventCallback<L> callback : _listeners) {
+					metrics.forget(callback.getEventName(), callback);
+				}
+			}
+			
 			// On supprime tous les listeners
-			_listeners.clear();
+			_listeners = empty();
+			_index = Collections.emptyMap();
+			_wildcards = empty();
 		
 		}
 		
@@ -395,13 +610,13 @@ public class EventSource<L extends IEventListener> {
 		synchronized (this) {
 		
 			// On parcours les listeners
-			for (IEventCallback<L> c : new ArrayList<IEventCallback<L>>(_listeners)) {
+			for (IEventCallback<L> c : _listeners) {
 				
 				// Uniquement pour les CallbackEventListener
 				if (c instanceof CallbackEventListener) {
 					if (((CallbackEventListener<?>) c).getListener() == listener) {
 						// On retire le listener
-						_listeners.remove(c);
+						removeCallback(c);
 						// On conserve l'instance dans la liste des listeners retirs
 						removed.add(c);
 					}
@@ -433,7 +648,7 @@ public class EventSource<L extends IEventListener> {
 		synchronized (this) {
 		
 			// On parcours les listeners
-			for (IEventCallback<L> c : new ArrayList<IEventCallback<L>>(_listeners)) {
+			for (IEventCallback<L> c : _listeners) {
 				
 				// Uniquement pour les CallbackSingleEventMethod
 				if (!(c instanceof CallbackSingleEventMethod)) {
@@ -459,7 +674,7 @@ public class EventSource<L extends IEventListener> {
 				}
 				
 				// On retire le listener
-				_listeners.remove(c);
+				removeCallback(c);
 				
 				// On conserve l'instance dans la liste des listeners retir�s
 				removed.add(c);
@@ -498,13 +713,13 @@ public class EventSource<L extends IEventListener> {
 		synchronized (this) {
 		
 			// On parcours les listeners
-			for (IEventCallback<L> c : new ArrayList<IEventCallback<L>>(_listeners)) {
+			for (IEventCallback<L> c : _listeners) {
 				
 				// Uniquement pour les CallbackMultipleEventIListener
 				if (c instanceof CallbackMultipleEventIListener) {
 					if (((CallbackMultipleEventIListener<?>) c).getListener() == listener) {
 						// On retire le listener
-						_listeners.remove(c);
+						removeCallback(c);
 						// On conserve l'instance dans la liste des listeners retirs
 						removed.add(c);
 					}
@@ -514,7 +729,7 @@ public class EventSource<L extends IEventListener> {
 				if (c instanceof CallbackSingleEventIListener) {
 					if (((CallbackSingleEventIListener<?>) c).getListener() == listener) {
 						// On retire le listener
-						_listeners.remove(c);
+						removeCallback(c);
 						// On conserve l'instance dans la liste des listeners retirs
 						removed.add(c);
 					}
@@ -554,13 +769,13 @@ public class EventSource<L extends IEventListener> {
 		synchronized (this) {
 		
 			// On parcours les listeners
-			for (IEventCallback<L> c : new ArrayList<IEventCallback<L>>(_listeners)) {
+			for (IEventCallback<L> c : _listeners) {
 				
 				// Uniquement pour les CallbackSingleRunnable
 				if (c instanceof CallbackSingleRunnable) {
 					if (((CallbackSingleRunnable<?>) c).getListener() == listener) {
 						// On retire le listener
-						_listeners.remove(c);
+						removeCallback(c);
 						// On conserve l'instance dans la liste des listeners retirs
 						removed.add(c);
 					}
@@ -570,7 +785,7 @@ public class EventSource<L extends IEventListener> {
 				if (c instanceof CallbackSingleEventIListener) {
 					if (((CallbackSingleEventIListener<?>) c).getListener() == listener) {
 						// On retire le listener
-						_listeners.remove(c);
+						removeCallback(c);
 						// On conserve l'instance dans la liste des listeners retirs
 						removed.add(c);
 					}
@@ -599,6 +814,63 @@ public class EventSource<L extends IEventListener> {
 		return broadcast(eventName, null, args, false);
 	}
 	
+	/**
+	 * Propager un event sans argument.
+	 */
+	public boolean triggerNoArgs(String eventName) {
+		return broadcast(eventName, null, null, false, TypedDispatch.ARGS0, null, null, null, null, 0, 0);
+	}
+	
+	/**
+	 * Propager un event portant un int. La valeur n'est boxe que pour les
+	 * listeners non typs.
+	 */
+	public boolean triggerInt(String eventName, int value) {
+		return broadcast(eventName, null, null, false, TypedDispatch.INT, null, null, null, null, value, 0);
+	}
+	
+	/**
+	 * Propager un event portant un long.
+	 */
+	public boolean triggerLong(String eventName, long value) {
+		return broadcast(eventName, null, null, false, TypedDispatch.LONG, null, null, null, null, value, 0);
+	}
+	
+	/**
+	 * Propager un event portant un double.
+	 */
+	public boolean triggerDouble(String eventName, double value) {
+		return broadcast(eventName, null, null, false, TypedDispatch.DOUBLE, null, null, null, null, 0, value);
+	}
+	
+	/**
+	 * Propager un event  un argument, sans tableau varargs.
+	 */
+	public boolean triggerWith(String eventName, Object a) {
+		return broadcast(eventName, null, null, false, TypedDispatch.ARGS1, a, null, null, null, 0, 0);
+	}
+	
+	/**
+	 * Propager un event  deux arguments, sans tableau varargs.
+	 */
+	public boolean triggerWith(String eventName, Object a, Object b) {
+		return broadcast(eventName, null, null, false, TypedDispatch.ARGS2, a, b, null, null, 0, 0);
+	}
+	
+	/**
+	 * Propager un event  trois arguments, sans tableau varargs.
+	 */
+	public boolean triggerWith(String eventName, Object a, Object b, Object c) {
+		return broadcast(eventName, null, null, false, TypedDispatch.ARGS3, a, b, c, null, 0, 0);
+	}
+	
+	/**
+	 * Propager un event  quatre arguments, sans tableau varargs.
+	 */
+	public boolean triggerWith(String eventName, Object a, Object b, Object c, Object d) {
+		return broadcast(eventName, null, null, false, TypedDispatch.ARGS4, a, b, c, d, 0, 0);
+	}
+	
 	/**
 	 * Propager un event uniquement pour le listener donn.
 	 * 
@@ -624,6 +896,19 @@ public class EventSource<L extends IEventListener> {
 	 * Mthode interne de propagation.
 	 */
 	protected boolean broadcast(String eventName, Object filter, Object[] args, boolean raiseExceptions) {
+		return broadcast(eventName, filter, args, raiseExceptions, TypedDispatch.VARARGS, null, null, null, null, 0, 0);
+	}
+	
+	/**
+	 * Mthode interne de propagation. Les arguments sont soit dans le tableau
+	 * args (kind = VARARGS), soit  plat : le tableau n'est alors fabriqu que
+	 * si un listener non typ doit tre notifi. Avec VARARGS, un tableau null
+	 * est transmis tel quel.
+	 * 
+	 * @see TypedDispatch
+	 */
+	protected boolean broadcast(String eventName, Object filter, Object[] args, boolean raiseExceptions,
+			int kind, Object a, Object b, Object c, Object d, long l, double v) {
 		
 		// Log
 		/*if (LOGGER.isLoggable(IncaLogger.EVENT)) {
@@ -635,19 +920,23 @@ public class EventSource<L extends IEventListener> {
 			return false;
 		}
 		
-		// Aucun listener
-		if (_listeners.size() == 0) {
-			return true;
-		}
+		// Listeners librs
+		prune();
 		
-		// On fait une copie
-		List<IEventCallback<L>> copy = null;
-		synchronized (this) {
-			copy = new ArrayList<IEventCallback<L>>(_listeners);
+		// Les listeners concerns par cet event. Les tableaux sont immuables,
+		// il n'y a donc ni copie ni verrou.
+		IEventCallback<L>[] callbacks = _index.get(eventName);
+		if (callbacks == null) {
+			callbacks = _wildcards;
 		}
 		
+		// Mtriques
+		Metrics metrics = _metrics;
+		Metrics.EventCounters counters = metrics != null ? metrics.event(eventName) : null;
+		long start = counters != null ? System.nanoTime() : 0;
+		
 		// On parcours les listeners de la source
-		for (IEventCallback<L> listener : copy) {
+		for (IEventCallback<L> listener : callbacks) {
 			
 			// Filtrage
 			if (filter != null) {
@@ -655,19 +944,47 @@ public class EventSource<L extends IEventListener> {
 					continue;
 			}
 			
+			long time = counters != null ? System.nanoTime() : 0;
 			try {
 				// Notification
-				if (!listener.notifyEvent(this, eventName, args)) {
+				boolean result;
+				// Listener typ : appel direct, sans tableau
+				if (args == null && kind != TypedDispatch.VARARGS && listener instanceof CallbackSingleEventTyped) {
+					result = ((CallbackSingleEventTyped<L>) listener).notifyEvent(eventName, kind, a, b, c, d, l, v);
+				}
+				else {
+					if (args == null && kind != TypedDispatch.VARARGS) {
+						args = TypedDispatch.toArray(kind, a, b, c, d, l, v);
+					}
+					result = listener.notifyEvent(this, eventName, args);
+				}
+				// Mtriques
+				if (counters != null) {
+					measure(counters, listener, time, result);
+				}
+				if (!result) {
 					// Log
-					if (LOGGER.isLoggable(Level.FINE)) {
-						LOGGER.log(Level.FINE, "HALT BROADCAST event " + eventName
-								+ " by " + listener.toString());
+					if (Trace.enabled()) {
+						Trace.record(Trace.Kind.HALT, this, eventName, listener, args, 0);
+					}
+					// Mtriques
+					if (counters != null) {
+						counters.record(System.nanoTime() - start);
+						counters.halt();
 					}
 					// Rupture de la propagation
 					return false;
 				}
 			}
 			catch (Throwable t) {
+				// Mtriques
+				if (counters != null) {
+					measure(counters, listener, time, true);
+					counters.fail(listener);
+					if (raiseExceptions) {
+						counters.record(System.nanoTime() - start);
+					}
+				}
 				System.err.println("Error in EventSource.broadcast() : " + t.getClass().getSimpleName() + " - " + t.getMessage());
 				if (raiseExceptions) {
 					throw new EventDispatcherException(this, listener, eventName, t);
@@ -681,9 +998,154 @@ public class EventSource<L extends IEventListener> {
 			
 		}
 		
+		// Mtriques
+		if (counters != null) {
+			counters.record(System.nanoTime() - start);
+		}
+		
 		return true;
 		
 	}
+	
+	/**
+	 * Enregistre une notification dans les mtriques de l'event.
+	 */
+	private static void measure(Metrics.EventCounters counters, IEventCallback<?> listener, long time, boolean result) {
+		Metrics.Counters listenerCounters = counters.listener(listener);
+		listenerCounters.record(System.nanoTime() - time);
+		if (!result) {
+			listenerCounters.halt();
+		}
+	}
+	
+	/**
+	 * Active la mesure de la propagation : nombre de propagations, d'arrts et
+	 * d'exceptions, et dures, par event et par listener.
+	 * 
+	 * @param metrics Les mtriques, ou NULL pour ne plus rien mesurer.
+	 */
+	public void setMetrics(Metrics metrics) {
+		_metrics = metrics;
+	}
+	
+	/**
+	 * Renvoie les mtriques de propagation, ou NULL.
+	 */
+	public Metrics getMetrics() {
+		return _metrics;
+	}
+
+	/**
+	 * Renvoie la file des rfrences libres, en la crant au besoin.
+	 */
+	private synchronized ReferenceQueue<Object> cleared() {
+		if (_cleared == null) {
+			_cleared = new ReferenceQueue<Object>();
+		}
+		return _cleared;
+	}
+	
+	/**
+	 * Retire les listeners faibles que le GC a librs. Tant qu'aucun n'a t
+	 * libr, ne cote qu'une lecture de la file, sans verrou ni allocation.
+	 */
+	@SuppressWarnings("unchecked")
+	private void prune() {
+		ReferenceQueue<Object> cleared = _cleared;
+		if (cleared == null) {
+			return;
+		}
+		Reference<?> reference;
+		while ((reference = cleared.poll()) != null) {
+			IEventCallback<L> callback = (IEventCallback<L>) ((CallbackEventListener.ListenerReference<?>) reference).callback;
+			synchronized (this) {
+				// La source a pu tre dtruite entre temps
+				if (_listeners != null) {
+					removeCallback(callback);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Ajoute une callback dans la liste et dans l'index, en remplaant les
+	 * tableaux. A appeler en tant synchronis sur la source.
+	 */
+	private void addCallback(IEventCallback<L> callback) {
+		prune();
+		_listeners = append(_listeners, callback);
+		String eventName = callback.getEventName();
+		Map<String, IEventCallback<L>[]> index = new HashMap<String, IEventCallback<L>[]>(_index);
+		// Listener de tous les events : ajout  chaque entre de l'index
+		if (eventName == null) {
+			_wildcards = append(_wildcards, callback);
+			for (Map.Entry<String, IEventCallback<L>[]> entry : index.entrySet()) {
+				entry.setValue(append(entry.getValue(), callback));
+			}
+		}
+		// Listener d'un seul event : l'entre dmarre avec les listeners de tous les events
+		else {
+			IEventCallback<L>[] bucket = index.get(eventName);
+			index.put(eventName, append(bucket != null ? bucket : _wildcards, callback));
+		}
+		_index = index;
+	}
+	
+	/**
+	 * Retire une callback de la liste et de l'index, en remplaant les
+	 * tableaux. A appeler en tant synchronis sur la source.
+	 */
+	private boolean removeCallback(IEventCallback<L> callback) {
+		IEventCallback<L>[] listeners = remove(_listeners, callback);
+		if (listeners == _listeners) {
+			return false;
+		}
+		_listeners = listeners;
+		String eventName = callback.getEventName();
+		// Les compteurs ne doivent pas retenir la callback
+		Metrics metrics = _metrics;
+		if (metrics != null) {
+			metrics.forget(eventName, callback);
+		}
+		Map<String, IEventCallback<L>[]> index = new HashMap<String, IEventCallback<L>[]>(_index);
+		if (eventName == null) {
+			_wildcards = remove(_wildcards, callback);
+			for (Map.Entry<String, IEventCallback<L>[]> entry : index.entrySet()) {
+				entry.setValue(remove(entry.getValue(), callback));
+			}
+		}
+		else {
+			IEventCallback<L>[] bucket = index.get(eventName);
+			if (bucket != null) {
+				index.put(eventName, remove(bucket, callback));
+			}
+		}
+		_index = index;
+		return true;
+	}
+	
+	/**
+	 * Renvoie une copie du tableau avec la callback ajoute  la fin.
+	 */
+	private static <L extends IEventListener> IEventCallback<L>[] append(IEventCallback<L>[] array, IEventCallback<L> callback) {
+		IEventCallback<L>[] copy = Arrays.copyOf(array, array.length + 1);
+		copy[array.length] = callback;
+		return copy;
+	}
+	
+	/**
+	 * Renvoie une copie du tableau sans la callback, ou le tableau lui-mme
+	 * s'il ne la contient pas.
+	 */
+	private static <L extends IEventListener> IEventCallback<L>[] remove(IEventCallback<L>[] array, IEventCallback<L> callback) {
+		for (int i = 0, l = array.length; i < l; i++) {
+			if (array[i] != callback) continue;
+			IEventCallback<L>[] copy = Arrays.copyOf(array, l - 1);
+			System.arraycopy(array, i + 1, copy, i, l - i - 1);
+			return copy;
+		}
+		return array;
+	}
 
 	protected void onUncaughtException(Throwable ex, IEventCallback<L> listener, String eventName) {
 		ex.printStackTrace();
@@ -715,7 +1177,7 @@ public class EventSource<L extends IEventListener> {
 	}
 
 	public List<IEventCallback<L>> getListeners() {
-		return new ArrayList<IEventCallback<L>>(_listeners);
+		return new ArrayList<IEventCallback<L>>(Arrays.asList(_listeners));
 	}
 
 	public void setEnabled(boolean enabled) {
@@ -743,10 +1205,10 @@ public class EventSource<L extends IEventListener> {
 		
 		synchronized (this) {
 			// On parcours les listeners
-			for (IEventCallback<L> c : new ArrayList<IEventCallback<L>>(_listeners)) {
+			for (IEventCallback<L> c : _listeners) {
 				if (c.getTargetObject() == target) {
 					// On retire le listener
-					_listeners.remove(c);
+					removeCallback(c);
 					// On conserve l'instance dans la liste des listeners retirs
 					removed.add(c);
 				}
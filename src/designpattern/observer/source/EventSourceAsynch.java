@@ -1,6 +1,13 @@
 package designpattern.observer.source;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+
+import designpattern.observer.dispatcher.VirtualThreads;
 
 /**
  * Une source d'event permettant le trigger asynchrone
@@ -10,15 +17,103 @@ import java.util.ArrayList;
 public class EventSourceAsynch<E extends IEventListener> extends EventSource<E> {
 
 	/**
-	 * La liste des dispatch  faire.
+	 * Comportement quand la file des dispatch est pleine.
+	 */
+	public static enum OverflowPolicy {
+		/**
+		 * L'appelant attend qu'une place se libre.
+		 */
+		BLOCK,
+		/**
+		 * Le plus ancien dispatch en attente est abandonn.
+		 */
+		DROP_OLDEST,
+		/**
+		 * Le nouveau dispatch est abandonn.
+		 */
+		DROP_NEWEST,
+		/**
+		 * Le dispatch est fait de faon synchrone dans le thread appelant. Attention,
+		 * il passe alors devant les dispatch en attente.
+		 */
+		CALLER_RUNS
+	}
+
+	/**
+	 * La capacit par dfaut de la file des dispatch en attente.
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	
+	/**
+	 * La liste des dispatch  faire (FIFO).
+	 */
+	private ArrayDeque<Runnable> _jobs = new ArrayDeque<Runnable>();
+	
+	/**
+	 * Le nombre maximum de dispatch en attente (ou en cours, sans ordre).
 	 */
-	private ArrayList<Runnable> _jobs = new ArrayList<Runnable>();
+	private int _capacity = DEFAULT_CAPACITY;
 	
 	/**
-	 * Le thread principal.
+	 * Le comportement quand la file est pleine.
+	 */
+	private OverflowPolicy _policy = OverflowPolicy.BLOCK;
+	
+	/**
+	 * L'excuteur sur lequel tourne la boucle de propagation. Par dfaut, un
+	 * nouveau thread est lanc  chaque fois que la file se remplit.
+	 */
+	private Executor _executor = new Executor() {
+		public void execute(Runnable command) {
+			new Thread(command).start();
+		}
+	};
+	
+	/**
+	 * Si TRUE (par dfaut), les dispatch sont faits un par un dans l'ordre
+	 * d'arrive. Sinon, chaque dispatch est confi directement  l'excuteur
+	 * et peut tourner en parallle des autres.
+	 */
+	private boolean _ordered = true;
+	
+	/**
+	 * Calcule la cl de fusion d'un triggerAsynch(), ou NULL si la fusion
+	 * n'est pas active.
+	 */
+	private BiFunction<String, Object[], ?> _conflationKey = null;
+	
+	/**
+	 * Fusionne les arguments en attente (premier argument) avec les nouveaux.
+	 */
+	private BinaryOperator<Object[]> _conflationMerge = null;
+	
+	/**
+	 * Les dispatch fusionnables en attente, par cl.
+	 */
+	private Map<Object, ConflatedJob> _conflated = new HashMap<Object, ConflatedJob>();
+	
+	/**
+	 * Le thread qui excute actuellement la boucle de propagation, ou NULL
+	 * si elle n'est pas en route.
 	 */
 	private Thread _thread;
 	
+	/**
+	 * Indique que la boucle de propagation a t confie  l'excuteur.
+	 */
+	private boolean _running = false;
+	
+	/**
+	 * Sans ordre : le nombre de dispatch confis  l'excuteur et pas encore
+	 * termins. C'est lui qui est born par la capacit.
+	 */
+	private int _inFlight = 0;
+	
+	/**
+	 * Sans ordre : marque les threads qui excutent un dispatch de cette source.
+	 */
+	private final ThreadLocal<Boolean> _dispatching = new ThreadLocal<Boolean>();
+	
 	public EventSourceAsynch() {
 		super();
 	}
@@ -36,8 +131,140 @@ public class EventSourceAsynch<E extends IEventListener> extends EventSource<E>
 		super(listenerClass, sender);
 	}
 	
+	/**
+	 * Change l'excuteur utilis pour la propagation. Quel que soit l'excuteur,
+	 * une seule tche de propagation tourne  la fois pour cette source, ce qui
+	 * garantit l'ordre FIFO des triggerAsynch().
+	 * 
+	 * @param executor L'excuteur, par exemple un ExecutorService partag.
+	 */
+	public void setExecutor(Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException("executor is null");
+		}
+		synchronized (this) {
+			_executor = executor;
+		}
+	}
+	
+	/**
+	 * Propage chaque triggerAsynch() dans un thread virtuel (si la JVM le
+	 * permet), pour que les listeners qui bloquent ne retardent pas les autres
+	 * events.
+	 * 
+	 * @param ordered Si TRUE, l'ordre des events de cette source est conserv :
+	 * un event ne dmarre qu'une fois le prcdent termin.
+	 */
+	public void useVirtualThreads(boolean ordered) {
+		setExecutor(VirtualThreads.executor());
+		setOrdered(ordered);
+	}
+	
+	/**
+	 * Indique si les dispatch doivent tre faits un par un dans l'ordre
+	 * d'arrive (comportement par dfaut).
+	 */
+	public void setOrdered(boolean ordered) {
+		synchronized (this) {
+			_ordered = ordered;
+		}
+	}
+	
+	/**
+	 * Borne la file des dispatch en attente (DEFAULT_CAPACITY par dfaut).
+	 * Sans ordre, c'est le nombre de dispatch confis  l'excuteur et pas
+	 * encore termins qui est born : DROP_OLDEST abandonne alors le nouveau
+	 * dispatch, les autres ayant dj dmarr.
+	 * 
+	 * @param capacity Le nombre maximum de dispatch en attente.
+	 * @param policy Le comportement quand la file est pleine.
+	 */
+	public void setCapacity(int capacity, OverflowPolicy policy) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+		if (policy == null) {
+			throw new NullPointerException("policy is null");
+		}
+		synchronized (this) {
+			_capacity = capacity;
+			_policy = policy;
+			notifyAll();
+		}
+	}
+	
+	/**
+	 * Active la fusion des triggerAsynch() : si un event de mme nom est
+	 * encore en attente, il n'est propag qu'une fois, avec les arguments
+	 * du plus rcent.
+	 * 
+	 * @param enabled TRUE pour activer la fusion, FALSE pour la dsactiver.
+	 */
+	public void setConflation(boolean enabled) {
+		if (enabled) {
+			setConflation((eventName, args) -> eventName, (previous, args) -> args);
+		}
+		else {
+			setConflation(null, null);
+		}
+	}
+	
+	/**
+	 * Active la fusion des triggerAsynch() : si un event de mme cl est
+	 * encore en attente, les deux sont fusionns en un seul dispatch. Les
+	 * triggerAsynch() avec callback ne sont jamais fusionns.
+	 * 
+	 * @param key Calcule la cl  partir du nom de l'event et de ses arguments.
+	 *   NULL dsactive la fusion.
+	 * @param merge Fusionne les arguments en attente avec les nouveaux.
+	 */
+	public void setConflation(BiFunction<String, Object[], ?> key, BinaryOperator<Object[]> merge) {
+		if (key != null && merge == null) {
+			throw new NullPointerException("merge is null");
+		}
+		synchronized (this) {
+			_conflationKey = key;
+			_conflationMerge = merge;
+		}
+	}
+	
 	@AsynchOperation
 	public void triggerAsynch(final String eventName, final Object... args) {
+		BiFunction<String, Object[], ?> conflationKey;
+		BinaryOperator<Object[]> conflationMerge;
+		synchronized (this) {
+			conflationKey = _conflationKey;
+			conflationMerge = _conflationMerge;
+		}
+		// Fusion avec un dispatch en attente. Les fonctions de l'utilisateur et
+		// l'ajout du job se font hors du verrou de la source.
+		if (conflationKey != null) {
+			Object key = conflationKey.apply(eventName, args);
+			while (true) {
+				ConflatedJob job;
+				boolean created = false;
+				synchronized (this) {
+					job = _conflated.get(key);
+					if (job == null) {
+						job = new ConflatedJob(key, eventName, args);
+						_conflated.put(key, job);
+						created = true;
+					}
+				}
+				// Nouveau dispatch
+				if (created) {
+					addJob(job);
+					return;
+				}
+				// Fusion, sauf si le dispatch a dmarr ou a t abandonn entre temps
+				synchronized (job) {
+					if (!job.closed) {
+						job.args = conflationMerge.apply(job.args, args);
+						return;
+					}
+				}
+			}
+		}
 		// Lancement asynchrone 
 		addJob(new Runnable() {
 			public void run() {
@@ -84,83 +311,243 @@ public class EventSourceAsynch<E extends IEventListener> extends EventSource<E>
 	@AsynchOperation
 	protected void addJob(Runnable job) {
 		
+		// Indique si le job doit tre excut par l'appelant
+		boolean callerRuns = false;
+		
+		// Sans ordre : l'excuteur auquel confier le job, hors synchro
+		Executor executor = null;
+		
 		// On se synchronise sur l'eventSource.
 		synchronized (this) {
-		
-			// On ajoute le job dans la list.
-			_jobs.add(job);
 			
-			// Si le thread de propagation n'est pas en route,
-			// on le lance.
-			if (_thread == null) {
-				start();
+			// La file est pleine : on applique la politique choisie
+			while ((_ordered ? _jobs.size() : _inFlight) >= _capacity) {
+				OverflowPolicy policy = _policy;
+				// On ne peut pas attendre depuis un thread de propagation
+				if (policy == OverflowPolicy.BLOCK && isDispatchThread()) {
+					policy = OverflowPolicy.CALLER_RUNS;
+				}
+				// Sans ordre, les dispatch confis ont dj dmarr
+				if (policy == OverflowPolicy.DROP_OLDEST && !_ordered) {
+					policy = OverflowPolicy.DROP_NEWEST;
+				}
+				switch (policy) {
+				case BLOCK:
+					try {
+						wait();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						discard(job);
+						return;
+					}
+					continue;
+				case DROP_OLDEST:
+					discard(_jobs.pollFirst());
+					continue;
+				case DROP_NEWEST:
+					discard(job);
+					return;
+				case CALLER_RUNS:
+					callerRuns = true;
+					break;
+				}
+				break;
+			}
+			
+			if (!callerRuns) {
+				
+				// Sans ordre : le job est confi directement  l'excuteur
+				if (!_ordered) {
+					_inFlight++;
+					executor = _executor;
+				}
+				
+				// On ajoute le job dans la file.
+				else {
+					_jobs.addLast(job);
+					
+					// Si la boucle de propagation n'est pas en route,
+					// on la lance.
+					if (!_running) {
+						start();
+					}
+					return;
+				}
+				
 			}
 		
 		}
 		
+		// Excution dans le thread appelant, hors synchro
+		if (callerRuns) {
+			job.run();
+			return;
+		}
+		
+		// Sans ordre : la place est libre  la fin du dispatch
+		final Runnable task = job;
+		try {
+			executor.execute(new Runnable() {
+				public void run() {
+					_dispatching.set(Boolean.TRUE);
+					try {
+						task.run();
+					}
+					finally {
+						_dispatching.remove();
+						release();
+					}
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			synchronized (this) {
+				discard(task);
+			}
+			release();
+			throw e;
+		}
+		
+	}
+	
+	/**
+	 * Indique si le thread courant excute un dispatch de cette source.
+	 */
+	private boolean isDispatchThread() {
+		return Thread.currentThread() == _thread || _dispatching.get() == Boolean.TRUE;
+	}
+	
+	/**
+	 * Sans ordre : un dispatch est termin, sa place se libre.
+	 */
+	private synchronized void release() {
+		_inFlight--;
+		notifyAll();
+	}
+
+	/**
+	 * Un dispatch abandonn ne peut plus recevoir de fusion.
+	 */
+	private void discard(Runnable job) {
+		if (job instanceof EventSourceAsynch<?>.ConflatedJob) {
+			EventSourceAsynch<?>.ConflatedJob conflated = (EventSourceAsynch<?>.ConflatedJob) job;
+			_conflated.remove(conflated.key, job);
+			synchronized (conflated) {
+				conflated.closed = true;
+			}
+		}
+	}
+	
+	/**
+	 * Un dispatch fusionnable : ses arguments peuvent tre remplacs tant
+	 * qu'il est en attente. Ils sont protgs par le verrou du job, pour que
+	 * la fusion ne bloque pas la source.
+	 */
+	private final class ConflatedJob implements Runnable {
+		
+		final Object key;
+		
+		final String eventName;
+		
+		Object[] args;
+		
+		/**
+		 * Passe  TRUE quand le dispatch dmarre ou est abandonn : les
+		 * arguments ne peuvent plus tre fusionns.
+		 */
+		boolean closed = false;
+		
+		ConflatedJob(Object key, String eventName, Object[] args) {
+			this.key = key;
+			this.eventName = eventName;
+			this.args = args;
+		}
+		
+		public void run() {
+			// Le dispatch dmarre : les events suivants ne sont plus fusionns
+			Object[] args;
+			synchronized (EventSourceAsynch.this) {
+				_conflated.remove(key, this);
+			}
+			synchronized (this) {
+				closed = true;
+				args = this.args;
+			}
+			// Dispatch synchrone
+			broadcast(eventName, null, args, false);
+		}
+		
 	}
 
 	@AsynchOperation
 	private void start() {
 		
-		// On fabrique le thread de propagation.
-		_thread = new Thread(new Runnable() {
-			public void run() {
-				
-				// Tant qu'il y a du travail...
-				while (true) {
-					
-					// La chose  faire
-					Runnable job = null;
-					
-					// On regarde s'il reste des choses  faire.
-					// Pour cela, on se synchronise sur l'eventSource.
-					synchronized (EventSourceAsynch.this) {
-						
-						// Plus de travail : on arrête
-						if (_jobs.size() < 1) {
-							// On arrête de boucler
-							//System.out.println("Terminated");
-							break;
-						}
-						
-						// Encore du travail  : on recupre le premier
-						// job ajout (FIFO)
-						job = _jobs.remove(0);
-						
-					}
-					
-					// Mfiance... mais a ne devrait pas arriver.
-					if (job == null) {
-						//System.out.println("Terminated with error");
-						break;
-					}
-					
-					// Execution du job en toute prcaution
-					try {
-						job.run();
-					}
-					catch (Throwable t) {
-						//System.err.println("Error from " + getClass());
-						t.printStackTrace();
-					}
-					
-					// On continue
-					
+		// On confie la boucle de propagation  l'excuteur.
+		_running = true;
+		try {
+			_executor.execute(new Runnable() {
+				public void run() {
+					drain();
 				}
+			});
+		}
+		catch (RuntimeException e) {
+			_running = false;
+			throw e;
+		}
+		
+	}
+	
+	/**
+	 * La boucle de propagation : vide la file dans l'ordre d'arrive.
+	 */
+	private void drain() {
+		
+		synchronized (EventSourceAsynch.this) {
+			_thread = Thread.currentThread();
+		}
+		
+		// Tant qu'il y a du travail...
+		while (true) {
+			
+			// La chose  faire
+			Runnable job = null;
+			
+			// On regarde s'il reste des choses  faire.
+			// Pour cela, on se synchronise sur l'eventSource.
+			synchronized (EventSourceAsynch.this) {
+				
+				// Encore du travail  : on recupre le premier
+				// job ajout (FIFO)
+				job = _jobs.pollFirst();
 				
-				// Si on arrive ici, c'est qu'on a termin le travail.
-				// On supprime la rfrence du thread pour indiquer cet tat.
-				synchronized (EventSourceAsynch.this) {
+				// Plus de travail : on arrte
+				if (job == null) {
+					// Si on arrive ici, c'est qu'on a termin le travail.
+					// On supprime la rfrence du thread pour indiquer cet tat.
 					_thread = null;
+					_running = false;
+					break;
 				}
 				
+				// Une place s'est libre
+				notifyAll();
+				
 			}
 			
-		});
-		
-		// On lance le thread
-		_thread.start();
+			// Execution du job en toute prcaution
+			try {
+				job.run();
+			}
+			catch (Throwable t) {
+				//System.err.println("Error from " + getClass());
+				t.printStackTrace();
+			}
+			
+			// On continue
+			
+		}
 		
 	}
 
@@ -8,5 +8,11 @@ public interface IEventCallback<L extends IEventListener> {
 	public String getMethodName(String eventName);
 	
 	public Object getTargetObject();
+	
+	/**
+	 * Renvoie le nom de l'unique event cout par cette callback, ou NULL
+	 * si elle coute tous les events de la source.
+	 */
+	public String getEventName();
 
 }
@@ -0,0 +1,211 @@
+package designpattern.observer.source;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Une mthode publique d'une classe de listener, rsolue une seule fois et
+ * invoque ensuite directement  travers un MethodHandle.
+ *
+ * Les invokers sont conservs par classe et par nom de mthode : la recherche
+ * par rflexion n'est faite qu'au premier event qui porte ce nom.
+ */
+final class MethodInvoker {
+
+	/**
+	 * Table des invokers, par classe puis par nom de mthode.
+	 */
+	private static final ClassValue<Map<String, MethodInvoker[]>> TABLES = new ClassValue<Map<String, MethodInvoker[]>>() {
+		@Override
+		protected Map<String, MethodInvoker[]> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<String, MethodInvoker[]>();
+		}
+	};
+
+	/**
+	 * Renvoie les invokers des mthodes publiques de la classe ayant ce nom,
+	 * dans l'ordre de getMethods(). Le tableau est vide si aucune mthode ne
+	 * porte ce nom.
+	 */
+	static MethodInvoker[] forName(Class<?> type, String methodName) {
+		Map<String, MethodInvoker[]> table = TABLES.get(type);
+		MethodInvoker[] invokers = table.get(methodName);
+		if (invokers == null) {
+			invokers = resolve(type, methodName);
+			table.put(methodName, invokers);
+		}
+		return invokers;
+	}
+
+	private static MethodInvoker[] resolve(Class<?> type, String methodName) {
+		List<MethodInvoker> list = new ArrayList<MethodInvoker>();
+		for (Method m : type.getMethods()) {
+			if (m.getName().equals(methodName)) {
+				list.add(new MethodInvoker(m));
+			}
+		}
+		return list.toArray(new MethodInvoker[list.size()]);
+	}
+
+	/**
+	 * La mthode rsolue.
+	 */
+	private final Method _method;
+
+	/**
+	 * Les types des paramtres.
+	 */
+	private final Class<?>[] _types;
+
+	/**
+	 * Le handle (Object target, Object[] args) -> Object. Les arguments en trop
+	 * dans le tableau sont ignors.
+	 */
+	private final MethodHandle _handle;
+
+	/**
+	 * Indique si la mthode renvoie un boolean.
+	 */
+	private final boolean _returnsBoolean;
+
+	private MethodInvoker(Method m) {
+
+		_method = m;
+
+		// Types des paramtres
+		Class<?>[] params = m.getParameterTypes();
+		int length = params.length;
+		_types = params;
+
+		// Pour permetre l'invocation d'une mthode dans une classe anonyme
+		m.setAccessible(true);
+
+		// Fabrication du handle
+		MethodHandle handle;
+		try {
+			handle = MethodHandles.lookup().unreflect(m);
+		}
+		catch (IllegalAccessException ex) {
+			throw new IllegalStateException(ex);
+		}
+		if (Modifier.isStatic(m.getModifiers())) {
+			handle = handle.asType(MethodType.genericMethodType(length));
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		else {
+			handle = handle.asType(MethodType.genericMethodType(length + 1));
+		}
+
+		// Chaque paramtre est lu directement dans le tableau d'arguments
+		MethodHandle getter = MethodHandles.arrayElementGetter(Object[].class);
+		int[] reorder = new int[length + 1];
+		for (int i = 0; i < length; i++) {
+			handle = MethodHandles.filterArguments(handle, i + 1, MethodHandles.insertArguments(getter, 1, i));
+			reorder[i + 1] = 1;
+		}
+		_handle = MethodHandles.permuteArguments(handle,
+				MethodType.methodType(Object.class, Object.class, Object[].class), reorder);
+
+		// Si la mthode renvoie une boolean, on s'en servira pour le retour
+		_returnsBoolean = m.getReturnType() == boolean.class || m.getReturnType() == Boolean.class;
+
+	}
+
+	/**
+	 * Vrifie que les arguments peuvent tre passs  la mthode, avec les
+	 * conversions de Method.invoke() : un wrapper est accept par un
+	 * paramtre primitif de mme type ou plus large (Integer pour un long
+	 * ou un double par exemple). Le handle fait la mme conversion.
+	 *
+	 * @param args Les arguments de l'event.
+	 * @param exactArity Si FALSE, les arguments en trop sont accepts (et ignors).
+	 */
+	boolean accepts(Object[] args, boolean exactArity) {
+		int length = _types.length;
+		if (exactArity ? args.length != length : args.length < length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			Class<?> type = _types[i];
+			if (args[i] == null) {
+				if (type.isPrimitive()) return false;
+			}
+			else if (type.isPrimitive() ? !widens(args[i].getClass(), type) : !type.isInstance(args[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Indique si la valeur d'un wrapper peut tre passe  un paramtre
+	 * primitif : mme type, ou largissement (JLS 5.1.2).
+	 */
+	static boolean widens(Class<?> wrapper, Class<?> primitive) {
+		if (wrapper == Boolean.class || primitive == boolean.class) {
+			return wrapper == Boolean.class && primitive == boolean.class;
+		}
+		int from = rank(wrapper);
+		if (from < 0) {
+			return false;
+		}
+		if (primitive == double.class) return true;
+		if (primitive == float.class) return from <= 4;
+		if (primitive == long.class) return from <= 3;
+		if (primitive == int.class) return from <= 2;
+		if (primitive == short.class) return from <= 1 && wrapper != Character.class;
+		if (primitive == char.class) return wrapper == Character.class;
+		if (primitive == byte.class) return wrapper == Byte.class;
+		return false;
+	}
+
+	/**
+	 * Le rang d'un wrapper numrique dans l'ordre d'largissement, -1 si ce
+	 * n'en est pas un.
+	 */
+	private static int rank(Class<?> wrapper) {
+		if (wrapper == Byte.class) return 0;
+		if (wrapper == Short.class || wrapper == Character.class) return 1;
+		if (wrapper == Integer.class) return 2;
+		if (wrapper == Long.class) return 3;
+		if (wrapper == Float.class) return 4;
+		if (wrapper == Double.class) return 5;
+		return -1;
+	}
+
+	/**
+	 * Invoque la mthode sur la cible.
+	 *
+	 * @return La valeur renvoye si la mthode renvoie un boolean, TRUE sinon.
+	 */
+	boolean invoke(Object target, Object[] args) throws Exception {
+		Object result;
+		try {
+			result = (Object) _handle.invokeExact(target, args);
+		}
+		catch (Exception | Error ex) {
+			throw ex;
+		}
+		catch (Throwable t) {
+			throw new RuntimeException(t);
+		}
+		return _returnsBoolean ? (Boolean) result : true;
+	}
+
+	Method getMethod() {
+		return _method;
+	}
+
+	@Override
+	public String toString() {
+		return _method.toString();
+	}
+
+}
@@ -0,0 +1,84 @@
+package designpattern.observer.source;
+
+/**
+ * Vrifie qu'un argument encapsul est accept par une mthode qui attend un
+ * type primitif plus large, comme avec Method.invoke : un Integer doit
+ * atteindre un paramtre long ou double.
+ *
+ * Lve une AssertionError en cas d'chec.
+ */
+public class WideningTest {
+
+	public static interface ValueListener extends IEventListener {
+		public void onDouble(double value);
+		public void onLong(long value);
+	}
+
+	public static class Target {
+		long value;
+		public void onValue(long value) {
+			this.value = value;
+		}
+		public void onValue(String value) {
+		}
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	public static void main(String[] args) {
+
+		final double[] doubles = new double[1];
+		final long[] longs = new long[1];
+
+		EventSource<ValueListener> source = new EventSource<>(ValueListener.class);
+
+		// Avec l'interface
+		source.bind(new ValueListener() {
+			public void onDouble(double value) {
+				doubles[0] = value;
+			}
+			public void onLong(long value) {
+				longs[0] = value;
+			}
+		});
+
+		// Integer -> double
+		source.triggerWith("onDouble", Integer.valueOf(3));
+		check(doubles[0] == 3.0, "Integer -> double : " + doubles[0]);
+
+		// Integer -> long
+		source.triggerWith("onLong", Integer.valueOf(3));
+		check(longs[0] == 3L, "Integer -> long : " + longs[0]);
+
+		// Un type plus large ne doit pas tre rtrci
+		longs[0] = 0;
+		source.triggerWith("onLong", Double.valueOf(3));
+		check(longs[0] == 0L, "Double -> long accept");
+
+		// Avec une mthode, par rflexion : Integer -> long
+		Target target = new Target();
+		source.bind("onValue", target, "onValue");
+		source.triggerWith("onValue", Integer.valueOf(3));
+		check(target.value == 3L, "Integer -> long par mthode : " + target.value);
+
+		// Aucune surcharge n'accepte un Double : toutes sont signales, puis
+		// l'erreur est leve
+		target.value = 0;
+		try {
+			source.dispatch("onValue", Double.valueOf(3));
+			check(false, "mismatch non lev");
+		}
+		catch (EventDispatcherException ex) {
+			check(ex.getCause() instanceof IllegalArgumentException, "mismatch : " + ex.getCause());
+		}
+		check(target.value == 0L, "Double -> long accept par mthode");
+
+		System.out.println("OK : widening");
+
+	}
+
+}
@@ -0,0 +1,27 @@
+package designpattern.observer.trace;
+
+/**
+ * Destination des traces de propagation.
+ * 
+ * Les traces sont transmises champ par champ, sans tre mises en forme : c'est
+ * le sink qui dcide de ce qu'il garde (filtrage, compteurs, fichier...).
+ * 
+ * @see Trace
+ */
+@FunctionalInterface
+public interface ITraceSink {
+
+	/**
+	 * Reoit une trace.
+	 * 
+	 * @param kind Le type de trace.
+	 * @param source L'objet qui propage (dispatcher, EventSource...).
+	 * @param event L'event concern (peut tre NULL, par exemple pour REDIRECT).
+	 * @param target Le listener, la callback ou la cible de redirection (peut tre NULL).
+	 * @param args Les arguments de l'event (peut tre NULL). Le tableau ne doit pas tre conserv.
+	 * @param value Une valeur propre au type de trace : la priorit pour BIND et NOTIFY,
+	 *   la tranche pour BAND, la taille du lot pour BATCH, 0 sinon.
+	 */
+	public void trace(Trace.Kind kind, Object source, Object event, Object target, Object[] args, long value);
+
+}
@@ -0,0 +1,65 @@
+package designpattern.observer.trace;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Un sink qui met en forme les traces dans un Logger, au niveau FINER.
+ */
+public class LoggerTraceSink implements ITraceSink {
+
+	private final Logger _logger;
+
+	public LoggerTraceSink(Logger logger) {
+		if (logger == null) {
+			throw new NullPointerException("logger is null");
+		}
+		_logger = logger;
+	}
+
+	@Override
+	public void trace(Trace.Kind kind, Object source, Object event, Object target, Object[] args, long value) {
+		if (!_logger.isLoggable(Level.FINER)) {
+			return;
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append(kind);
+		sb.append(" [");
+		sb.append(event);
+		sb.append("] SOURCE=");
+		sb.append(source);
+		if (target != null) {
+			sb.append(" TARGET=");
+			sb.append(target);
+		}
+		if (args != null) {
+			sb.append(" ARGS=(");
+			for (int i = 0; i < args.length; i++) {
+				if (i > 0) {
+					sb.append(", ");
+				}
+				sb.append(args[i] == null ? "null" : args[i].getClass().getSimpleName());
+			}
+			sb.append(")");
+		}
+		switch (kind) {
+		case BIND:
+		case NOTIFY:
+			sb.append(" PRIORITY=");
+			sb.append(value);
+			break;
+		case BAND:
+			sb.append(" BAND=");
+			sb.append(value);
+			break;
+		case BATCH:
+			sb.append(" SIZE=");
+			sb.append(value);
+			break;
+		default:
+			break;
+		}
+		_logger.log(Level.FINER, sb.toString());
+	}
+
+}
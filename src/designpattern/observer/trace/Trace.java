@@ -0,0 +1,123 @@
+package designpattern.observer.trace;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.util.logging.Logger;
+
+/**
+ * Le traage de la propagation des events.
+ * 
+ * L'tat activ/dsactiv est une constante d'un MutableCallSite : le JIT la
+ * recopie dans le code compil, et un test if (Trace.enabled()) disparat
+ * compltement quand le traage est dsactiv. Changer l'tat invalide le
+ * code compil qui en dpend, c'est donc une opration coteuse  rserver
+ * au debug.
+ * 
+ * Le traage est dsactiv par dfaut. La proprit systme
+ * designpattern.observer.trace=true l'active au dmarrage, avec un
+ * LoggerTraceSink sur le logger "Events".
+ */
+public final class Trace {
+
+	/**
+	 * Les types de traces.
+	 */
+	public static enum Kind {
+		/**
+		 * Un listener est connect.
+		 */
+		BIND,
+		/**
+		 * Un event est propag.
+		 */
+		TRIGGER,
+		/**
+		 * Un lot d'events est propag.
+		 */
+		BATCH,
+		/**
+		 * Une tranche de priorits est propage en parallle.
+		 */
+		BAND,
+		/**
+		 * Un listener est notifi.
+		 */
+		NOTIFY,
+		/**
+		 * Un listener a stopp la propagation.
+		 */
+		HALT,
+		/**
+		 * Les events sont redirigs vers une autre cible (ou plus redirigs si la cible est NULL).
+		 */
+		REDIRECT
+	}
+
+	/**
+	 * L'interrupteur : un handle constant () -> boolean.
+	 */
+	private static final MutableCallSite SWITCH = new MutableCallSite(MethodHandles.constant(boolean.class, false));
+
+	private static final MethodHandle ENABLED = SWITCH.dynamicInvoker();
+
+	/**
+	 * Le sink courant, NULL si le traage est dsactiv.
+	 */
+	private static volatile ITraceSink _sink = null;
+
+	static {
+		if (Boolean.getBoolean("designpattern.observer.trace")) {
+			enable(new LoggerTraceSink(Logger.getLogger("Events")));
+		}
+	}
+
+	private Trace() {
+	}
+
+	/**
+	 * Indique si le traage est activ. A tester avant chaque appel  record().
+	 */
+	public static boolean enabled() {
+		try {
+			return (boolean) ENABLED.invokeExact();
+		}
+		catch (Throwable t) {
+			throw new AssertionError(t);
+		}
+	}
+
+	/**
+	 * Active le traage vers le sink donn.
+	 */
+	public static void enable(ITraceSink sink) {
+		if (sink == null) {
+			throw new NullPointerException("sink is null");
+		}
+		set(sink);
+	}
+
+	/**
+	 * Dsactive le traage.
+	 */
+	public static void disable() {
+		set(null);
+	}
+
+	private static synchronized void set(ITraceSink sink) {
+		_sink = sink;
+		SWITCH.setTarget(MethodHandles.constant(boolean.class, sink != null));
+		MutableCallSite.syncAll(new MutableCallSite[] { SWITCH });
+	}
+
+	/**
+	 * Transmet une trace au sink. Voir ITraceSink pour le sens des champs.
+	 */
+	public static void record(Kind kind, Object source, Object event, Object target, Object[] args, long value) {
+		ITraceSink sink = _sink;
+		if (sink != null) {
+			sink.trace(kind, source, event, target, args, value);
+		}
+	}
+
+}